@@ -0,0 +1,95 @@
+package com.xhhao.dataStatistics.benchmark;
+
+import static com.xhhao.dataStatistics.aggregate.AggregateFixtures.comment;
+import static com.xhhao.dataStatistics.aggregate.AggregateFixtures.post;
+import static com.xhhao.dataStatistics.aggregate.AggregateFixtures.statsJson;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.xhhao.dataStatistics.aggregate.ChartAggregateStore;
+import com.xhhao.dataStatistics.vo.PieChartVO;
+
+import run.halo.app.core.extension.content.Comment;
+import run.halo.app.core.extension.content.Post;
+
+/**
+ * 图表聚合流水线基准测试
+ * <p>Throughput 统计吞吐量，SampleTime 给出 p99 延迟，分配速率由 gc profiler 输出。</p>
+ * <ul>
+ *     <li>load：全量加载文章与评论（发布日期直方图、评论计数、统计注解解析）</li>
+ *     <li>buildSnapshot：由聚合数据生成图表（文章列表、评论排行、Top10 文章）</li>
+ *     <li>incrementalUpdate：单篇文章变更后重新生成图表</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ChartAggregateBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private Post[] posts;
+    private Comment[] comments;
+    private ChartAggregateStore loadedStore;
+    private long nextVersion;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Instant now = Instant.now();
+        posts = new Post[size];
+        comments = new Comment[size];
+        int owners = Math.max(size / 20, 1);
+        for (int i = 0; i < size; i++) {
+            Instant publishTime = now.minus(random.nextInt(3 * 365), ChronoUnit.DAYS);
+            posts[i] = post("post-" + i, publishTime, statsJson(random.nextInt(100_000), 0, random.nextInt(500)));
+            comments[i] = comment("comment-" + i, "user" + random.nextInt(owners) + "@example.com");
+        }
+        loadedStore = newLoadedStore();
+        nextVersion = 2;
+    }
+
+    @Benchmark
+    public ChartAggregateStore load() {
+        return newLoadedStore();
+    }
+
+    @Benchmark
+    public PieChartVO buildSnapshot() {
+        loadedStore.invalidate();
+        return loadedStore.snapshot();
+    }
+
+    @Benchmark
+    public PieChartVO incrementalUpdate() {
+        Post post = posts[ThreadLocalRandom.current().nextInt(size)];
+        post.getMetadata().setVersion(nextVersion++);
+        loadedStore.upsertPost(post);
+        return loadedStore.snapshot();
+    }
+
+    private ChartAggregateStore newLoadedStore() {
+        ChartAggregateStore store = new ChartAggregateStore(null);
+        for (Post post : posts) {
+            store.upsertPost(post);
+        }
+        for (Comment comment : comments) {
+            store.upsertComment(comment);
+        }
+        return store;
+    }
+}
@@ -0,0 +1,99 @@
+package com.xhhao.dataStatistics.benchmark;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xhhao.dataStatistics.aggregate.AggregateFixtures;
+import com.xhhao.dataStatistics.aggregate.ChartAggregateStore;
+import com.xhhao.dataStatistics.aggregate.PostStatsParser;
+
+import run.halo.app.core.extension.content.Post;
+import run.halo.app.extension.Metadata;
+
+/**
+ * 对比文章统计注解的树形解析、流式解析与按版本记忆化三种方式
+ * <p>memoizedByVersion 直接走 {@link ChartAggregateStore#upsertPost} 的重建路径，
+ * 每轮有 changedPercent% 的文章版本变化需要重新解析，其余只比较版本号。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PostStatsParserBenchmark {
+
+    @Param({"10000", "100000"})
+    private int posts;
+
+    @Param({"1", "10"})
+    private int changedPercent;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String[] statsJson;
+    private Post[] postObjects;
+    private ChartAggregateStore store;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Instant now = Instant.now();
+        statsJson = new String[posts];
+        postObjects = new Post[posts];
+        store = new ChartAggregateStore(null);
+        for (int i = 0; i < posts; i++) {
+            statsJson[i] = AggregateFixtures.statsJson(random.nextInt(100_000), random.nextInt(1_000),
+                random.nextInt(500));
+            postObjects[i] = AggregateFixtures.post("post-" + i, now.minus(random.nextInt(3 * 365), ChronoUnit.DAYS),
+                statsJson[i]);
+            store.upsertPost(postObjects[i]);
+        }
+        cursor = 0;
+    }
+
+    @Benchmark
+    public void treeParse(Blackhole blackhole) throws IOException {
+        for (String json : statsJson) {
+            JsonNode statsNode = objectMapper.readTree(json);
+            blackhole.consume(statsNode.has("visit") ? statsNode.get("visit").asInt() : 0);
+        }
+    }
+
+    @Benchmark
+    public void streamingParse(Blackhole blackhole) throws IOException {
+        for (String json : statsJson) {
+            blackhole.consume(PostStatsParser.parse(json));
+        }
+    }
+
+    /**
+     * 模拟一次全量重建：按顺序轮换一部分文章的版本号，再把所有文章交给聚合存储
+     */
+    @Benchmark
+    public ChartAggregateStore memoizedByVersion() {
+        int changed = posts * changedPercent / 100;
+        for (int i = 0; i < changed; i++) {
+            Metadata metadata = postObjects[(cursor + i) % posts].getMetadata();
+            metadata.setVersion(metadata.getVersion() + 1);
+        }
+        cursor = (cursor + changed) % posts;
+        for (Post post : postObjects) {
+            store.upsertPost(post);
+        }
+        return store;
+    }
+}
@@ -1,7 +1,14 @@
 package com.xhhao.dataStatistics;
 
+import java.time.Duration;
+
 import org.springframework.stereotype.Component;
 
+import com.xhhao.dataStatistics.aggregate.ChartAggregateStore;
+import com.xhhao.dataStatistics.service.PrefetchService;
+import com.xhhao.dataStatistics.service.StatisticalService;
+
+import lombok.extern.slf4j.Slf4j;
 import run.halo.app.plugin.BasePlugin;
 import run.halo.app.plugin.PluginContext;
 
@@ -13,18 +20,39 @@ import run.halo.app.plugin.PluginContext;
  * @author Handsome
  * @since 1.0.5
  */
+@Slf4j
 @Component
 public class DataStatisticsPlugin extends BasePlugin {
 
-    public DataStatisticsPlugin(PluginContext pluginContext) {
+    private final ChartAggregateStore chartAggregateStore;
+    private final StatisticalService statisticalService;
+    private final PrefetchService prefetchService;
+
+    public DataStatisticsPlugin(PluginContext pluginContext, ChartAggregateStore chartAggregateStore,
+        StatisticalService statisticalService, PrefetchService prefetchService) {
         super(pluginContext);
+        this.chartAggregateStore = chartAggregateStore;
+        this.statisticalService = statisticalService;
+        this.prefetchService = prefetchService;
     }
 
     @Override
     public void start() {
+        // 先恢复磁盘快照以便立即响应，再后台加载聚合数据并校正快照
+        statisticalService.restoreSnapshot()
+            .then(chartAggregateStore.load())
+            .then(statisticalService.getPieChartVO())
+            .subscribe(null, e -> log.warn("预加载图表数据失败，将在首次请求时重试: {}", e.getMessage()));
+        prefetchService.start();
     }
 
     @Override
     public void stop() {
+        prefetchService.stop();
+        try {
+            statisticalService.saveSnapshot().block(Duration.ofSeconds(5));
+        } catch (Exception e) {
+            log.warn("停止插件时保存图表快照失败: {}", e.getMessage());
+        }
     }
 }
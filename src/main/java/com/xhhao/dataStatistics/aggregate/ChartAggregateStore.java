@@ -0,0 +1,504 @@
+package com.xhhao.dataStatistics.aggregate;
+
+import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.xhhao.dataStatistics.aggregate.PostStatsParser.PostStats;
+import com.xhhao.dataStatistics.common.Constants;
+import com.xhhao.dataStatistics.vo.PieChartVO;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import run.halo.app.core.extension.content.Category;
+import run.halo.app.core.extension.content.Comment;
+import run.halo.app.core.extension.content.Post;
+import run.halo.app.core.extension.content.Tag;
+import run.halo.app.extension.Extension;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.ListResult;
+import run.halo.app.extension.MetadataOperator;
+import run.halo.app.extension.PageRequestImpl;
+import run.halo.app.extension.index.query.QueryFactory;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.app.extension.router.selector.FieldSelector;
+
+/**
+ * 图表数据聚合存储
+ * <p>插件启动时全量加载一次，之后由各 Reconciler 根据扩展变更增量维护，
+ * 图表接口直接读取聚合结果，不再扫描文章、评论等扩展。</p>
+ * <p>指标：各类型全量加载耗时（data.statistics.aggregate.load）、条目数（data.statistics.aggregate.items）
+ * 与图表快照生成耗时（data.statistics.aggregate.snapshot）。</p>
+ *
+ * @since 1.0.6
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChartAggregateStore implements MeterBinder {
+
+    private static final int TOP_ARTICLE_LIMIT = 10;
+    private static final int LOAD_PAGE_SIZE = 500;
+
+    private final ReactiveExtensionClient client;
+
+    private final Map<String, TaxonomyEntry> tags = new HashMap<>();
+    private final Map<String, TaxonomyEntry> categories = new HashMap<>();
+    private final Map<String, PostEntry> posts = new HashMap<>();
+    private final PublishHistogram publishHistogram = new PublishHistogram();
+    private final Map<String, CommentEntry> comments = new HashMap<>();
+    private final Map<String, OwnerCount> ownerCounts = new HashMap<>();
+
+    /**
+     * 初始加载，失败时不缓存错误以便下次请求重试
+     */
+    private final Mono<Void> initialLoad = Mono.defer(this::loadAll)
+        .cache(v -> Duration.ofMillis(Long.MAX_VALUE), e -> Duration.ZERO,
+            () -> Duration.ofMillis(Long.MAX_VALUE));
+
+    /**
+     * 最近一次生成的快照，聚合数据变化或跨天后失效
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * 图表中评论排行的条数，完整排行通过分页接口获取
+     */
+    private volatile int commentLimit = Constants.Cache.COMMENT_TOP_N;
+
+    private volatile MeterRegistry meterRegistry;
+    private volatile Timer snapshotTimer;
+
+    /**
+     * 触发初始加载，可重复调用
+     */
+    public Mono<Void> load() {
+        return initialLoad;
+    }
+
+    /**
+     * 获取当前聚合结果，初始加载完成前会等待加载
+     */
+    public Mono<PieChartVO> getPieChartVO() {
+        return initialLoad.then(Mono.fromSupplier(this::snapshot));
+    }
+
+    /**
+     * 丢弃当前快照，下次读取时重新生成
+     */
+    public synchronized void invalidate() {
+        snapshot = null;
+    }
+
+    private Mono<Void> loadAll() {
+        long start = System.currentTimeMillis();
+        ListOptions publishedPosts = new ListOptions();
+        publishedPosts.setFieldSelector(FieldSelector.of(QueryFactory.isNotNull("spec.publishTime")));
+        return Mono.when(
+                loadPaged("tag", Tag.class, new ListOptions(), this::upsertTag),
+                loadPaged("category", Category.class, new ListOptions(), this::upsertCategory),
+                loadPaged("post", Post.class, publishedPosts, this::upsertPost),
+                loadPaged("comment", Comment.class, new ListOptions(), this::upsertComment))
+            .doOnSuccess(v -> log.info("图表聚合数据加载完成，文章 {} 篇，评论 {} 条，耗时 {}ms",
+                posts.size(), comments.size(), System.currentTimeMillis() - start))
+            .doOnError(e -> log.warn("图表聚合数据加载失败: {}", e.getMessage()));
+    }
+
+    /**
+     * 按固定页大小分页读取并立即转换为精简条目，峰值内存只与页大小有关，与站点规模无关
+     */
+    private <E extends Extension> Mono<Void> loadPaged(String typeName, Class<E> type, ListOptions options,
+        Consumer<E> consumer) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return fetchPage(type, options, 1)
+                .expand(result -> result.hasNext() ? fetchPage(type, options, result.getPage() + 1) : Mono.empty())
+                .doOnNext(result -> result.getItems().forEach(consumer))
+                .then()
+                .doOnSuccess(v -> recordLoad(typeName, "success", System.nanoTime() - start))
+                .doOnError(e -> recordLoad(typeName, "failure", System.nanoTime() - start));
+        });
+    }
+
+    private void recordLoad(String typeName, String outcome, long elapsedNanos) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            Timer.builder("data.statistics.aggregate.load")
+                .description("扩展全量加载耗时")
+                .tag("type", typeName)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <E extends Extension> Mono<ListResult<E>> fetchPage(Class<E> type, ListOptions options, int page) {
+        // 按主键排序只为保证分页稳定，聚合本身与顺序无关
+        return client.listBy(type, options, PageRequestImpl.of(page, LOAD_PAGE_SIZE, Sort.by("metadata.name")));
+    }
+
+    public synchronized void upsertTag(Tag tag) {
+        if (isDeleting(tag.getMetadata())) {
+            removeTag(tag.getMetadata().getName());
+            return;
+        }
+        Integer count = tag.getStatus() == null ? null : tag.getStatus().getVisiblePostCount();
+        putIfNewer(tags, tag.getMetadata(), new TaxonomyEntry(tag.getSpec().getDisplayName(),
+            defaultIfNull(count, 0), tag.getMetadata().getCreationTimestamp(),
+            tag.getMetadata().getVersion()));
+    }
+
+    public synchronized void removeTag(String name) {
+        if (tags.remove(name) != null) {
+            invalidate();
+        }
+    }
+
+    public synchronized void upsertCategory(Category category) {
+        if (isDeleting(category.getMetadata())) {
+            removeCategory(category.getMetadata().getName());
+            return;
+        }
+        Integer count = category.getStatus() == null ? null : category.getStatus().getVisiblePostCount();
+        putIfNewer(categories, category.getMetadata(), new TaxonomyEntry(category.getSpec().getDisplayName(),
+            defaultIfNull(count, 0), category.getMetadata().getCreationTimestamp(),
+            category.getMetadata().getVersion()));
+    }
+
+    public synchronized void removeCategory(String name) {
+        if (categories.remove(name) != null) {
+            invalidate();
+        }
+    }
+
+    public synchronized void upsertPost(Post post) {
+        String name = post.getMetadata().getName();
+        if (isDeleting(post.getMetadata()) || post.getSpec().getPublishTime() == null) {
+            removePost(name);
+            return;
+        }
+        PostEntry existing = posts.get(name);
+        if (existing != null && isOlder(post.getMetadata().getVersion(), existing.version())) {
+            return;
+        }
+        // 版本未变化说明内容与注解均未修改，无需重新解析
+        if (existing != null && existing.version() != null
+            && existing.version().equals(post.getMetadata().getVersion())) {
+            return;
+        }
+        long epochDay = post.getSpec().getPublishTime()
+            .atZone(Constants.DEFAULT_ZONE_ID)
+            .toLocalDate()
+            .toEpochDay();
+        PostStats stats = parseStats(post);
+        PostEntry entry = new PostEntry(post.getSpec().getTitle(), epochDay, stats.visit(), stats.comment(),
+            post.getMetadata().getVersion());
+        posts.put(name, entry);
+        if (existing != null) {
+            publishHistogram.decrement(existing.publishEpochDay());
+        }
+        publishHistogram.increment(epochDay);
+        invalidate();
+    }
+
+    public synchronized void removePost(String name) {
+        PostEntry existing = posts.remove(name);
+        if (existing != null) {
+            publishHistogram.decrement(existing.publishEpochDay());
+            invalidate();
+        }
+    }
+
+    public synchronized void upsertComment(Comment comment) {
+        String name = comment.getMetadata().getName();
+        Comment.CommentOwner owner = comment.getSpec().getOwner();
+        if (isDeleting(comment.getMetadata()) || owner == null) {
+            removeComment(name);
+            return;
+        }
+        CommentEntry existing = comments.get(name);
+        if (existing != null && isOlder(comment.getMetadata().getVersion(), existing.version())) {
+            return;
+        }
+        String ownerKey = owner.getName() != null ? owner.getName() : "unknown";
+        comments.put(name, new CommentEntry(ownerKey, comment.getMetadata().getVersion()));
+        if (existing != null) {
+            if (existing.ownerKey().equals(ownerKey)) {
+                return;
+            }
+            decrementOwner(existing.ownerKey());
+        }
+        ownerCounts.computeIfAbsent(ownerKey, key -> new OwnerCount(owner.getName(), owner.getDisplayName()))
+            .count++;
+        invalidate();
+    }
+
+    public synchronized void removeComment(String name) {
+        CommentEntry existing = comments.remove(name);
+        if (existing != null) {
+            decrementOwner(existing.ownerKey());
+            invalidate();
+        }
+    }
+
+    private void decrementOwner(String ownerKey) {
+        OwnerCount ownerCount = ownerCounts.get(ownerKey);
+        if (ownerCount != null && --ownerCount.count <= 0) {
+            ownerCounts.remove(ownerKey);
+        }
+    }
+
+    private void putIfNewer(Map<String, TaxonomyEntry> target, MetadataOperator metadata, TaxonomyEntry entry) {
+        TaxonomyEntry existing = target.get(metadata.getName());
+        if (existing != null && isOlder(entry.version(), existing.version())) {
+            return;
+        }
+        target.put(metadata.getName(), entry);
+        invalidate();
+    }
+
+    /**
+     * 同步获取当前快照，不等待初始加载
+     */
+    public PieChartVO snapshot() {
+        return currentSnapshot().data();
+    }
+
+    /**
+     * 分页读取完整的评论排行（按评论数倒序），页码从 1 开始
+     */
+    public Mono<ListResult<PieChartVO.Comment>> getCommentLeaderboard(int page, int size) {
+        return initialLoad.then(Mono.fromSupplier(() -> {
+            List<PieChartVO.Comment> leaderboard = currentSnapshot().leaderboard();
+            int from = (int) Math.min((long) (page - 1) * size, leaderboard.size());
+            int to = Math.min(from + size, leaderboard.size());
+            return new ListResult<>(page, size, leaderboard.size(), leaderboard.subList(from, to));
+        }));
+    }
+
+    /**
+     * 按粒度统计 [from, to] 区间内的文章发布数，按时间正序返回，每个桶的求和为 O(1)
+     */
+    public Mono<List<PieChartVO.Article>> getArticleHistogram(LocalDate from, LocalDate to,
+        Granularity granularity) {
+        return initialLoad.then(Mono.fromSupplier(() -> {
+            PublishHistogram.View histogram = currentSnapshot().histogram();
+            List<PieChartVO.Article> buckets = new ArrayList<>();
+            for (LocalDate start = granularity.bucketStart(from); !start.isAfter(to);
+                 start = granularity.nextBucket(start)) {
+                LocalDate next = granularity.nextBucket(start);
+                long fromDay = Math.max(start.toEpochDay(), from.toEpochDay());
+                long toDay = Math.min(next.toEpochDay() - 1, to.toEpochDay());
+                buckets.add(article(granularity.label(start), start, (int) histogram.sum(fromDay, toDay)));
+            }
+            return buckets;
+        }));
+    }
+
+    /**
+     * 设置图表中评论排行的条数，变化时丢弃当前快照
+     */
+    public void setCommentLimit(int commentLimit) {
+        if (this.commentLimit != commentLimit) {
+            this.commentLimit = commentLimit;
+            invalidate();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        itemGauge(registry, "tag", tags);
+        itemGauge(registry, "category", categories);
+        itemGauge(registry, "post", posts);
+        itemGauge(registry, "comment", comments);
+        itemGauge(registry, "comment-owner", ownerCounts);
+        snapshotTimer = Timer.builder("data.statistics.aggregate.snapshot")
+            .description("由聚合数据生成图表快照的耗时")
+            .register(registry);
+        meterRegistry = registry;
+    }
+
+    /**
+     * 指标采样线程与更新线程不同，HashMap 的 size 需在存储的锁内读取
+     */
+    private void itemGauge(MeterRegistry registry, String typeName, Map<String, ?> items) {
+        Gauge.builder("data.statistics.aggregate.items", this, store -> store.sizeOf(items))
+            .description("聚合存储中的条目数")
+            .tag("type", typeName)
+            .register(registry);
+    }
+
+    private synchronized int sizeOf(Map<String, ?> items) {
+        return items.size();
+    }
+
+    private Snapshot currentSnapshot() {
+        LocalDate today = LocalDate.now(Constants.DEFAULT_ZONE_ID);
+        Snapshot current = snapshot;
+        if (current != null && current.date().equals(today)) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || !current.date().equals(today)) {
+                long start = System.nanoTime();
+                PublishHistogram.View histogram = publishHistogram.freeze();
+                List<PieChartVO.Comment> leaderboard = buildCommentList();
+                PieChartVO data = buildPieChartVO(today, histogram);
+                data.setComments(leaderboard.subList(0, Math.min(commentLimit, leaderboard.size())));
+                current = new Snapshot(today, data, leaderboard, histogram);
+                snapshot = current;
+                if (snapshotTimer != null) {
+                    snapshotTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+            return current;
+        }
+    }
+
+    private PieChartVO buildPieChartVO(LocalDate today, PublishHistogram.View histogram) {
+        PieChartVO pieChartVO = new PieChartVO();
+        pieChartVO.setTags(tags.values().stream()
+            .sorted(TaxonomyEntry.NEWEST_FIRST)
+            .map(entry -> {
+                PieChartVO.Tag tagVO = new PieChartVO.Tag();
+                tagVO.setName(entry.displayName());
+                tagVO.setCount(entry.postCount());
+                return tagVO;
+            })
+            .toList());
+        pieChartVO.setCategories(categories.values().stream()
+            .sorted(TaxonomyEntry.NEWEST_FIRST)
+            .map(entry -> {
+                PieChartVO.Category categoryVO = new PieChartVO.Category();
+                categoryVO.setName(entry.displayName());
+                categoryVO.setTotal(entry.postCount());
+                return categoryVO;
+            })
+            .toList());
+        pieChartVO.setArticles(buildArticleList(today, histogram));
+        // 一次遍历同时选出访问量与评论数 Top-K，无需对全部文章排序
+        TopK<PostEntry> topByViews = new TopK<>(TOP_ARTICLE_LIMIT, Comparator.comparingInt(PostEntry::visits));
+        TopK<PostEntry> topByComments = new TopK<>(TOP_ARTICLE_LIMIT, Comparator.comparingInt(PostEntry::comments));
+        for (PostEntry entry : posts.values()) {
+            topByViews.offer(entry);
+            topByComments.offer(entry);
+        }
+        pieChartVO.setTop10Articles(topByViews.toSortedList().stream()
+            .map(entry -> {
+                PieChartVO.Top10Article top10Article = new PieChartVO.Top10Article();
+                top10Article.setName(entry.title());
+                top10Article.setViews(entry.visits());
+                return top10Article;
+            })
+            .toList());
+        pieChartVO.setTop10CommentedArticles(topByComments.toSortedList().stream()
+            .filter(entry -> entry.comments() > 0)
+            .map(entry -> {
+                PieChartVO.Top10CommentedArticle commentedArticle = new PieChartVO.Top10CommentedArticle();
+                commentedArticle.setName(entry.title());
+                commentedArticle.setComments(entry.comments());
+                return commentedArticle;
+            })
+            .toList());
+        return pieChartVO;
+    }
+
+    private List<PieChartVO.Article> buildArticleList(LocalDate today, PublishHistogram.View histogram) {
+        LocalDate startDate = today.minusYears(1);
+        List<PieChartVO.Article> articles = new ArrayList<>();
+        // 按日期倒序生成近一年的每日发布数
+        for (LocalDate date = today; !date.isBefore(startDate); date = date.minusDays(1)) {
+            articles.add(article(date.toString(), date, histogram.count(date.toEpochDay())));
+        }
+        return articles;
+    }
+
+    private static PieChartVO.Article article(String name, LocalDate date, int total) {
+        PieChartVO.Article articleVO = new PieChartVO.Article();
+        articleVO.setName(name);
+        articleVO.setDate(date.atStartOfDay());
+        articleVO.setTotal(total);
+        return articleVO;
+    }
+
+    private List<PieChartVO.Comment> buildCommentList() {
+        return ownerCounts.entrySet().stream()
+            .map(entry -> {
+                PieChartVO.Comment commentVO = new PieChartVO.Comment();
+                commentVO.setName(entry.getValue().name);
+                commentVO.setEmail(entry.getKey());
+                commentVO.setUsername(entry.getValue().displayName);
+                commentVO.setCount(entry.getValue().count);
+                return commentVO;
+            })
+            .sorted(Comparator.comparing(PieChartVO.Comment::getCount).reversed())
+            .toList();
+    }
+
+    private PostStats parseStats(Post post) {
+        Map<String, String> annotations = post.getMetadata().getAnnotations();
+        if (annotations == null) {
+            return PostStats.EMPTY;
+        }
+        try {
+            return PostStatsParser.parse(annotations.get(PostStatsParser.STATS_ANNOTATION));
+        } catch (IOException e) {
+            log.warn("解析文章统计信息失败: {}", e.getMessage());
+        }
+        return PostStats.EMPTY;
+    }
+
+    private static boolean isDeleting(MetadataOperator metadata) {
+        return metadata.getDeletionTimestamp() != null;
+    }
+
+    /**
+     * 初始加载与增量更新可能交错，旧版本的数据不能覆盖新版本
+     */
+    private static boolean isOlder(Long version, Long existingVersion) {
+        return version != null && existingVersion != null && version < existingVersion;
+    }
+
+    private record Snapshot(LocalDate date, PieChartVO data, List<PieChartVO.Comment> leaderboard,
+                            PublishHistogram.View histogram) {}
+
+    private record TaxonomyEntry(String displayName, int postCount, Instant creationTimestamp, Long version) {
+        static final Comparator<TaxonomyEntry> NEWEST_FIRST = Comparator.comparing(TaxonomyEntry::creationTimestamp,
+            Comparator.nullsLast(Comparator.reverseOrder()));
+    }
+
+    private record PostEntry(String title, long publishEpochDay, int visits, int comments, Long version) {}
+
+
+    private record CommentEntry(String ownerKey, Long version) {}
+
+    private static final class OwnerCount {
+        private final String name;
+        private final String displayName;
+        private int count;
+
+        private OwnerCount(String name, String displayName) {
+            this.name = name;
+            this.displayName = displayName;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.xhhao.dataStatistics.aggregate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.xhhao.dataStatistics.service.SettingConfigGetter;
+import com.xhhao.dataStatistics.vo.PieChartVO;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 图表数据磁盘快照
+ * <p>以带版本号的 gzip JSON 保存最近一次计算的图表数据，插件重启后可立即返回，
+ * 再由聚合数据在后台校正。</p>
+ *
+ * @since 1.0.6
+ */
+@Slf4j
+@Component
+public class ChartSnapshotRepository {
+
+    /**
+     * 快照格式版本，PieChartVO 结构不兼容变更时递增
+     */
+    static final int SCHEMA_VERSION = 1;
+
+    private static final String FILE_NAME = "chart-snapshot.json.gz";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private static final String WORK_DIR_PROPERTY = "halo.work-dir";
+
+    private final SettingConfigGetter settingConfigGetter;
+
+    /**
+     * 未在高级设置中指定目录时使用的快照文件
+     */
+    private final Path defaultSnapshotFile;
+
+    /**
+     * 最近一次使用的快照文件，目录变化时记录日志
+     */
+    private volatile Path currentSnapshotFile;
+
+    public ChartSnapshotRepository(Environment environment, SettingConfigGetter settingConfigGetter) {
+        this.settingConfigGetter = settingConfigGetter;
+        String workDir = environment.getProperty(WORK_DIR_PROPERTY);
+        if (StrUtil.isNotBlank(workDir)) {
+            this.defaultSnapshotFile = pluginDataDir(Path.of(workDir)).resolve(FILE_NAME);
+            log.info("图表快照默认保存于 {}（Halo 工作目录取自 {}）", defaultSnapshotFile, WORK_DIR_PROPERTY);
+        } else {
+            // 插件环境不一定暴露 Halo 的根配置，取不到时按 Halo 的默认工作目录
+            this.defaultSnapshotFile = pluginDataDir(Path.of(System.getProperty("user.home"), ".halo2"))
+                .resolve(FILE_NAME);
+            log.warn("插件环境中未读取到 {}，图表快照默认保存于 {}；Halo 使用自定义工作目录时请在高级设置中指定快照目录",
+                WORK_DIR_PROPERTY, defaultSnapshotFile);
+        }
+    }
+
+    private static Path pluginDataDir(Path workDir) {
+        return workDir.resolve("plugin-data").resolve("data-statistics");
+    }
+
+    /**
+     * 高级设置中指定的目录优先，未填写或读取设置失败时使用默认位置
+     */
+    private Mono<Path> snapshotFile() {
+        return settingConfigGetter.getAdvancedConfig()
+            .mapNotNull(SettingConfigGetter.AdvancedConfig::getSnapshotDir)
+            .filter(StrUtil::isNotBlank)
+            .map(dir -> Path.of(dir.trim()).resolve(FILE_NAME))
+            .onErrorResume(e -> {
+                log.debug("读取快照目录设置失败，使用默认位置: {}", e.getMessage());
+                return Mono.empty();
+            })
+            .defaultIfEmpty(defaultSnapshotFile)
+            .doOnNext(file -> {
+                if (!file.equals(currentSnapshotFile)) {
+                    currentSnapshotFile = file;
+                    log.info("图表快照文件: {}", file);
+                }
+            });
+    }
+
+    /**
+     * 读取快照，文件不存在、损坏或版本不匹配时返回空
+     */
+    public Mono<PieChartVO> load() {
+        return snapshotFile().flatMap(snapshotFile -> Mono.fromCallable(() -> {
+                if (!Files.isRegularFile(snapshotFile)) {
+                    return null;
+                }
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(snapshotFile))) {
+                    Snapshot snapshot = objectMapper.readValue(in, Snapshot.class);
+                    if (snapshot.schemaVersion() != SCHEMA_VERSION || snapshot.data() == null) {
+                        log.info("图表快照版本 {} 与当前版本 {} 不一致，忽略", snapshot.schemaVersion(), SCHEMA_VERSION);
+                        return null;
+                    }
+                    log.debug("已加载图表快照，保存于 {}", snapshot.savedAt());
+                    return snapshot.data();
+                }
+            }))
+            .subscribeOn(Schedulers.boundedElastic())
+            .onErrorResume(e -> {
+                log.warn("读取图表快照失败: {}", e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * 写入快照，先写临时文件再原子替换，避免进程中断留下半个文件
+     */
+    public Mono<Void> save(PieChartVO data) {
+        return snapshotFile().flatMap(snapshotFile -> Mono.<Void>fromCallable(() -> {
+                Files.createDirectories(snapshotFile.getParent());
+                Path tempFile = snapshotFile.resolveSibling(FILE_NAME + ".tmp");
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+                    objectMapper.writeValue(out, new Snapshot(SCHEMA_VERSION, Instant.now(), data));
+                }
+                Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+                return null;
+            }))
+            .subscribeOn(Schedulers.boundedElastic())
+            .onErrorResume(IOException.class, e -> {
+                log.warn("保存图表快照失败: {}", e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    private record Snapshot(int schemaVersion, Instant savedAt, PieChartVO data) {}
+}
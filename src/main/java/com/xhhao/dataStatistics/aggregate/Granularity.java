@@ -0,0 +1,95 @@
+package com.xhhao.dataStatistics.aggregate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 文章发布直方图的统计粒度
+ *
+ * @since 1.0.6
+ */
+public enum Granularity {
+    DAY {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date;
+        }
+
+        @Override
+        public LocalDate nextBucket(LocalDate bucketStart) {
+            return bucketStart.plusDays(1);
+        }
+
+        @Override
+        public String label(LocalDate bucketStart) {
+            return bucketStart.toString();
+        }
+    },
+    WEEK {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+
+        @Override
+        public LocalDate nextBucket(LocalDate bucketStart) {
+            return bucketStart.plusWeeks(1);
+        }
+
+        @Override
+        public String label(LocalDate bucketStart) {
+            return bucketStart.toString();
+        }
+    },
+    MONTH {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.withDayOfMonth(1);
+        }
+
+        @Override
+        public LocalDate nextBucket(LocalDate bucketStart) {
+            return bucketStart.plusMonths(1);
+        }
+
+        @Override
+        public String label(LocalDate bucketStart) {
+            return bucketStart.toString().substring(0, 7);
+        }
+    },
+    YEAR {
+        @Override
+        public LocalDate bucketStart(LocalDate date) {
+            return date.withDayOfYear(1);
+        }
+
+        @Override
+        public LocalDate nextBucket(LocalDate bucketStart) {
+            return bucketStart.plusYears(1);
+        }
+
+        @Override
+        public String label(LocalDate bucketStart) {
+            return String.valueOf(bucketStart.getYear());
+        }
+    };
+
+    public abstract LocalDate bucketStart(LocalDate date);
+
+    public abstract LocalDate nextBucket(LocalDate bucketStart);
+
+    public abstract String label(LocalDate bucketStart);
+
+    /**
+     * 按名称解析，忽略大小写，无法识别时返回 null
+     */
+    public static Granularity of(String value) {
+        for (Granularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.xhhao.dataStatistics.aggregate;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * 文章统计注解（content.halo.run/stats）解析器
+ * <p>基于流式 {@link JsonParser} 逐个读取字段，只取 visit、upvote、comment 三个整数，
+ * 不构建 JsonNode 树。</p>
+ *
+ * @since 1.0.6
+ */
+public final class PostStatsParser {
+
+    public static final String STATS_ANNOTATION = "content.halo.run/stats";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private PostStatsParser() {
+    }
+
+    /**
+     * 解析统计注解，内容为空时返回 {@link PostStats#EMPTY}
+     *
+     * @throws IOException JSON 格式不合法时抛出
+     */
+    public static PostStats parse(String statsJson) throws IOException {
+        if (statsJson == null || statsJson.isEmpty()) {
+            return PostStats.EMPTY;
+        }
+        int visit = 0;
+        int upvote = 0;
+        int comment = 0;
+        try (JsonParser parser = JSON_FACTORY.createParser(statsJson)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return PostStats.EMPTY;
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "visit" -> visit = parser.getValueAsInt();
+                    case "upvote" -> upvote = parser.getValueAsInt();
+                    case "comment" -> comment = parser.getValueAsInt();
+                    default -> {
+                        if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            }
+        }
+        return new PostStats(visit, upvote, comment);
+    }
+
+    public record PostStats(int visit, int upvote, int comment) {
+        public static final PostStats EMPTY = new PostStats(0, 0, 0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.xhhao.dataStatistics.aggregate;
+
+/**
+ * 按天（epoch day）索引的文章发布数直方图
+ * <p>计数保存在连续的 int 数组中，{@link #freeze()} 生成带前缀和的只读视图，
+ * 任意日期区间的求和均为 O(1)。</p>
+ *
+ * @since 1.0.6
+ */
+public class PublishHistogram {
+
+    private static final int GROWTH_SLACK_DAYS = 64;
+
+    private int[] counts = new int[0];
+    private long baseDay;
+
+    public void increment(long epochDay) {
+        ensureCapacity(epochDay);
+        counts[(int) (epochDay - baseDay)]++;
+    }
+
+    public void decrement(long epochDay) {
+        long index = epochDay - baseDay;
+        if (index >= 0 && index < counts.length && counts[(int) index] > 0) {
+            counts[(int) index]--;
+        }
+    }
+
+    public View freeze() {
+        long[] prefix = new long[counts.length + 1];
+        for (int i = 0; i < counts.length; i++) {
+            prefix[i + 1] = prefix[i] + counts[i];
+        }
+        return new View(baseDay, prefix);
+    }
+
+    private void ensureCapacity(long epochDay) {
+        if (counts.length == 0) {
+            baseDay = epochDay - GROWTH_SLACK_DAYS;
+            counts = new int[GROWTH_SLACK_DAYS * 2];
+            return;
+        }
+        long endDay = baseDay + counts.length;
+        if (epochDay >= baseDay && epochDay < endDay) {
+            return;
+        }
+        long newBase = Math.min(baseDay, epochDay - GROWTH_SLACK_DAYS);
+        long newEnd = Math.max(endDay, epochDay + GROWTH_SLACK_DAYS);
+        int[] grown = new int[Math.toIntExact(newEnd - newBase)];
+        System.arraycopy(counts, 0, grown, (int) (baseDay - newBase), counts.length);
+        counts = grown;
+        baseDay = newBase;
+    }
+
+    /**
+     * 直方图的只读前缀和视图
+     */
+    public static final class View {
+
+        private final long baseDay;
+        private final long[] prefix;
+
+        private View(long baseDay, long[] prefix) {
+            this.baseDay = baseDay;
+            this.prefix = prefix;
+        }
+
+        public int count(long epochDay) {
+            return (int) sum(epochDay, epochDay);
+        }
+
+        /**
+         * 统计 [fromDay, toDay] 闭区间内的发布数
+         */
+        public long sum(long fromDay, long toDay) {
+            int length = prefix.length - 1;
+            long from = Math.max(fromDay - baseDay, 0);
+            long to = Math.min(toDay - baseDay, length - 1);
+            if (from > to) {
+                return 0;
+            }
+            return prefix[(int) to + 1] - prefix[(int) from];
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.xhhao.dataStatistics.aggregate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 有界 Top-K 选择器
+ * <p>内部使用容量为 k 的小顶堆，流式接收元素，时间复杂度 O(n log k)，空间 O(k)。</p>
+ *
+ * @since 1.0.6
+ */
+public class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> comparator;
+    private final PriorityQueue<T> heap;
+
+    public TopK(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k 不能为负数: " + k);
+        }
+        this.k = k;
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(Math.max(k, 1), comparator);
+    }
+
+    public void offer(T item) {
+        if (k == 0) {
+            return;
+        }
+        if (heap.size() < k) {
+            heap.offer(item);
+        } else if (comparator.compare(item, heap.peek()) > 0) {
+            heap.poll();
+            heap.offer(item);
+        }
+    }
+
+    /**
+     * 按从大到小返回结果
+     */
+    public List<T> toSortedList() {
+        List<T> result = new ArrayList<>(heap);
+        result.sort(comparator.reversed());
+        return result;
+    }
+}
@@ -0,0 +1,20 @@
+package com.xhhao.dataStatistics.common;
+
+/**
+ * 插件设置取值工具方法
+ *
+ * @since 1.0.6
+ */
+public final class ConfigUtils {
+
+    private ConfigUtils() {
+        // 禁止实例化
+    }
+
+    /**
+     * 设置项未填写或小于 1 时使用默认值
+     */
+    public static int positiveOrDefault(Integer value, int defaultValue) {
+        return value == null || value < 1 ? defaultValue : value;
+    }
+}
@@ -26,13 +26,35 @@ public final class Constants {
     public static final class Cache {
         private Cache() {}
         
-        /** 图表数据缓存时间（分钟） */
+        /** 图表数据缓存时间默认值（分钟），可在高级设置中修改 */
         public static final int CHART_DATA_CACHE_MINUTES = 5;
         
+        /** 图表中评论排行条数默认值，可在高级设置中修改 */
+        public static final int COMMENT_TOP_N = 10;
+
         /** Umami Token 缓存时间（小时） */
         public static final int UMAMI_TOKEN_CACHE_HOURS = 24;
     }
 
+    /**
+     * 后台预取相关常量，刷新间隔可在高级设置中修改
+     */
+    public static final class Prefetch {
+        private Prefetch() {}
+
+        /** 图表数据刷新间隔默认值（秒） */
+        public static final int CHART_REFRESH_SECONDS = 60;
+
+        /** Umami 数据刷新间隔默认值（秒） */
+        public static final int UMAMI_REFRESH_SECONDS = 30;
+
+        /** Uptime Kuma 状态刷新间隔默认值（秒） */
+        public static final int UPTIME_REFRESH_SECONDS = 30;
+
+        /** 超过该时长（分钟）无人访问的数据不再预取 */
+        public static final int IDLE_MINUTES = 30;
+    }
+
     /**
      * 默认 URL 常量
      */
@@ -0,0 +1,316 @@
+package com.xhhao.dataStatistics.common;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 支持单飞刷新与过期后继续返回旧值的响应式缓存
+ * <ul>
+ *     <li>同一个 key 同一时刻只有一个加载在执行，并发请求共享结果</li>
+ *     <li>过期后先返回旧值，同时在后台刷新（stale-while-revalidate）</li>
+ *     <li>加载失败后按指数退避缓存错误，退避期内不再请求上游</li>
+ *     <li>记录每个 key 最近一次读取的时间与加载函数，供后台预取在过期前刷新仍有人访问的条目</li>
+ *     <li>条目数超过上限时淘汰最久未读取的条目，key 来自外部输入时也不会无限增长</li>
+ * </ul>
+ * 绑定 MeterRegistry 后按 hit、stale、miss、error 统计读取结果（data.statistics.cache.requests）。
+ *
+ * @since 1.0.6
+ */
+@Slf4j
+public class RefreshingCache<K, V> implements MeterBinder {
+
+    private static final int DEFAULT_MAX_SIZE = 256;
+
+    private final String name;
+    private final int maxSize;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final Clock clock;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private volatile Counter hits;
+    private volatile Counter staleHits;
+    private volatile Counter misses;
+    private volatile Counter errors;
+    private volatile Counter evictions;
+
+    public RefreshingCache(String name) {
+        this(name, DEFAULT_MAX_SIZE);
+    }
+
+    public RefreshingCache(String name, int maxSize) {
+        this(name, maxSize, Duration.ofSeconds(5), Duration.ofMinutes(5));
+    }
+
+    public RefreshingCache(String name, int maxSize, Duration minBackoff, Duration maxBackoff) {
+        this(name, maxSize, minBackoff, maxBackoff, Clock.systemUTC());
+    }
+
+    /**
+     * @param clock 有效期、退避与最近读取时间使用的时钟，测试中可替换
+     */
+    public RefreshingCache(String name, int maxSize, Duration minBackoff, Duration maxBackoff, Clock clock) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+        this.clock = clock;
+    }
+
+    /**
+     * 获取缓存值
+     *
+     * @param key 缓存 key
+     * @param ttl 值的有效期，过期后返回旧值并在后台刷新
+     * @param loader 加载函数，仅在需要刷新时调用
+     */
+    public Mono<V> get(K key, Duration ttl, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            Entry<V> entry = entryFor(key);
+            long now = clock.millis();
+            touch(entry, now, ttl, loader);
+            V value = entry.value;
+            if (value != null) {
+                if (now - entry.loadedAt >= ttl.toMillis()) {
+                    increment(staleHits);
+                    if (now >= entry.retryAt) {
+                        refresh(key, entry, loader)
+                            .subscribe(null, e -> log.debug("[{}] 后台刷新 {} 失败，继续使用旧值: {}",
+                                name, key, e.getMessage()));
+                    }
+                } else {
+                    increment(hits);
+                }
+                return Mono.just(value);
+            }
+            Throwable lastError = entry.lastError;
+            if (lastError != null && now < entry.retryAt) {
+                increment(errors);
+                return Mono.error(lastError);
+            }
+            increment(misses);
+            return refresh(key, entry, loader);
+        });
+    }
+
+    /**
+     * 获取未过期的值：缓存已过期时等待刷新完成（与进行中的加载共享），不返回旧值
+     * <p>用于推送等需要最新数据的场景，退避期内直接返回最近一次的错误。</p>
+     */
+    public Mono<V> getFresh(K key, Duration ttl, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            Entry<V> entry = entryFor(key);
+            long now = clock.millis();
+            touch(entry, now, ttl, loader);
+            V value = entry.value;
+            if (value != null && now - entry.loadedAt < ttl.toMillis()) {
+                increment(hits);
+                return Mono.just(value);
+            }
+            Throwable lastError = entry.lastError;
+            if (lastError != null && now < entry.retryAt) {
+                increment(errors);
+                return Mono.error(lastError);
+            }
+            increment(misses);
+            return refresh(key, entry, loader);
+        });
+    }
+
+    private void touch(Entry<V> entry, long now, Duration ttl, Supplier<Mono<V>> loader) {
+        entry.accessedAt = now;
+        entry.ttlMillis = ttl.toMillis();
+        entry.loader = loader;
+    }
+
+    /**
+     * 刷新最近被读取过且即将过期的条目，由后台预取调用
+     *
+     * @param activeWithin 只刷新在该时长内被读取过的条目，无人访问的数据不再请求上游
+     * @param lead 提前量，在该时长内将过期的条目也会刷新，通常取预取间隔
+     * @param concurrency 同时刷新的条目数上限
+     */
+    public Mono<Void> refreshActive(Duration activeWithin, Duration lead, int concurrency) {
+        return Flux.defer(() -> {
+                long now = clock.millis();
+                return Flux.fromIterable(entries.entrySet())
+                    .filter(e -> isDue(e.getValue(), now, activeWithin.toMillis(), lead.toMillis()));
+            })
+            .flatMap(e -> refresh(e.getKey(), e.getValue(), e.getValue().loader)
+                .onErrorResume(error -> Mono.empty()), concurrency)
+            .then();
+    }
+
+    private static boolean isDue(Entry<?> entry, long now, long activeWithin, long lead) {
+        return entry.loader != null
+            && now - entry.accessedAt <= activeWithin
+            && now >= entry.retryAt
+            && now - entry.loadedAt >= entry.ttlMillis - lead;
+    }
+
+    /**
+     * 直接返回当前缓存值（可能已过期），没有缓存时返回 null
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * 标记为过期，下次读取时返回旧值并触发刷新
+     */
+    public void invalidate(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            entry.loadedAt = 0;
+            entry.retryAt = 0;
+        }
+    }
+
+    public void invalidateAll() {
+        entries.keySet().forEach(this::invalidate);
+    }
+
+    /**
+     * 移除缓存值，下次读取时同步加载
+     */
+    public void evict(K key) {
+        entries.remove(key);
+    }
+
+    public void evictAll() {
+        entries.clear();
+    }
+
+    public void put(K key, V value) {
+        Entry<V> entry = entryFor(key);
+        entry.value = value;
+        entry.loadedAt = clock.millis();
+        entry.lastError = null;
+        entry.failures = 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        hits = requestCounter(registry, "hit");
+        staleHits = requestCounter(registry, "stale");
+        misses = requestCounter(registry, "miss");
+        errors = requestCounter(registry, "error");
+        evictions = Counter.builder("data.statistics.cache.evictions")
+            .description("超过容量上限被淘汰的条目数")
+            .tag("cache", name)
+            .register(registry);
+        Gauge.builder("data.statistics.cache.size", entries, Map::size)
+            .description("缓存条目数")
+            .tag("cache", name)
+            .register(registry);
+    }
+
+    private Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("data.statistics.cache.requests")
+            .description("缓存读取次数，result 为 hit、stale、miss 或 error")
+            .tag("cache", name)
+            .tag("result", result)
+            .register(registry);
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private Entry<V> entryFor(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            return entry;
+        }
+        entry = entries.computeIfAbsent(key, k -> new Entry<>(clock.millis()));
+        if (entries.size() > maxSize) {
+            evictLeastRecentlyUsed(key);
+        }
+        return entry;
+    }
+
+    /**
+     * 只在新增条目时执行，容量较小，线性扫描即可
+     */
+    private void evictLeastRecentlyUsed(K keep) {
+        while (entries.size() > maxSize) {
+            K eldest = null;
+            long eldestAccess = Long.MAX_VALUE;
+            for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+                if (!e.getKey().equals(keep) && e.getValue().accessedAt < eldestAccess) {
+                    eldest = e.getKey();
+                    eldestAccess = e.getValue().accessedAt;
+                }
+            }
+            if (eldest == null || entries.remove(eldest) == null) {
+                return;
+            }
+            increment(evictions);
+        }
+    }
+
+    private Mono<V> refresh(K key, Entry<V> entry, Supplier<Mono<V>> loader) {
+        synchronized (entry) {
+            if (entry.inflight != null) {
+                return entry.inflight;
+            }
+            Mono<V> inflight = Mono.defer(loader)
+                .doOnNext(value -> {
+                    entry.value = value;
+                    entry.loadedAt = clock.millis();
+                    entry.lastError = null;
+                    entry.failures = 0;
+                    entry.retryAt = 0;
+                })
+                .doOnError(e -> {
+                    entry.lastError = e;
+                    entry.retryAt = clock.millis() + backoff(++entry.failures);
+                    log.warn("[{}] 加载 {} 失败（第 {} 次），退避至下次重试: {}",
+                        name, key, entry.failures, e.getMessage());
+                })
+                .doFinally(signal -> {
+                    synchronized (entry) {
+                        entry.inflight = null;
+                    }
+                })
+                .cache();
+            entry.inflight = inflight;
+            return inflight;
+        }
+    }
+
+    private long backoff(int failures) {
+        long delay = minBackoff.toMillis() << Math.min(failures - 1, 16);
+        return Math.min(delay, maxBackoff.toMillis());
+    }
+
+    private static final class Entry<V> {
+        private volatile V value;
+        private volatile long loadedAt;
+        private volatile long retryAt;
+        private volatile Throwable lastError;
+        private volatile Mono<V> inflight;
+        private volatile long accessedAt;
+        private volatile long ttlMillis;
+        private volatile Supplier<Mono<V>> loader;
+        private int failures;
+
+        private Entry(long createdAt) {
+            this.accessedAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.xhhao.dataStatistics.common;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import cn.hutool.core.util.StrUtil;
+
+/**
+ * 请求相关工具方法
+ *
+ * @since 1.0.6
+ */
+public final class RequestUtils {
+
+    private RequestUtils() {
+        // 禁止实例化
+    }
+
+    /**
+     * 客户端是否接受 gzip 编码的响应
+     */
+    public static boolean acceptsGzip(ServerRequest request) {
+        return acceptsGzip(String.join(",", request.headers().header(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    /**
+     * 按 Accept-Encoding 的编码列表判断：gzip（或 x-gzip）的 q 值大于 0 时接受；
+     * 未列出 gzip 时按通配符 * 的 q 值判断；q=0 表示明确拒绝
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String item : StrUtil.nullToEmpty(acceptEncoding).split(",")) {
+            String[] parts = item.split(";");
+            String coding = parts[0].trim().toLowerCase();
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzipQuality = quality(parts);
+            } else if ("*".equals(coding)) {
+                wildcardQuality = quality(parts);
+            }
+        }
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return wildcardQuality != null && wildcardQuality > 0;
+    }
+
+    /**
+     * 读取 q 参数，缺省为 1，无法解析时视为 0
+     */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String param = parts[i].trim();
+            if (param.length() > 1 && Character.toLowerCase(param.charAt(0)) == 'q'
+                && param.substring(1).trim().startsWith("=")) {
+                try {
+                    return Double.parseDouble(param.substring(param.indexOf('=') + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
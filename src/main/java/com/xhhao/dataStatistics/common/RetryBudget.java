@@ -0,0 +1,37 @@
+package com.xhhao.dataStatistics.common;
+
+/**
+ * 全局重试预算
+ * <p>每个请求按比例存入额度，每次重试消耗一个额度，额度耗尽时不再重试。
+ * 上游整体故障时重试量被限制在请求量的固定比例内，避免重试放大占满连接池。</p>
+ *
+ * @since 1.0.6
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double maxBalance;
+    private double balance;
+
+    /**
+     * @param ratio 每个请求存入的额度，即允许的重试比例
+     * @param maxBalance 额度上限，也是初始额度，允许短时间的突发重试
+     */
+    public RetryBudget(double ratio, int maxBalance) {
+        this.ratio = ratio;
+        this.maxBalance = maxBalance;
+        this.balance = maxBalance;
+    }
+
+    public synchronized void deposit() {
+        balance = Math.min(maxBalance, balance + ratio);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package com.xhhao.dataStatistics.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * 预先序列化并压缩的响应体
+ * <p>同一份数据只序列化、压缩一次，并据内容生成强 ETag，供接口直接写出字节。</p>
+ *
+ * @since 1.0.6
+ */
+public record SerializedPayload(byte[] json, byte[] gzip, String etag, Instant lastModified) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    public static SerializedPayload of(Object value) {
+        try {
+            byte[] json = OBJECT_MAPPER.writeValueAsBytes(value);
+            return new SerializedPayload(json, gzip(json), "\"" + DigestUtils.md5DigestAsHex(json) + "\"",
+                Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化响应数据失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(data.length / 4, 64));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,31 @@
+package com.xhhao.dataStatistics.common;
+
+import java.util.Set;
+
+import org.springframework.context.ApplicationEvent;
+
+import lombok.Getter;
+
+/**
+ * 插件设置变更事件
+ * <p>设置快照刷新后发布，依赖设置的缓存据此失效。</p>
+ *
+ * @since 1.0.6
+ */
+@Getter
+public class SettingsChangedEvent extends ApplicationEvent {
+
+    /**
+     * 发生变化的设置分组
+     */
+    private final Set<String> groups;
+
+    public SettingsChangedEvent(Object source, Set<String> groups) {
+        super(source);
+        this.groups = Set.copyOf(groups);
+    }
+
+    public boolean affects(String group) {
+        return groups.contains(group);
+    }
+}
@@ -0,0 +1,285 @@
+package com.xhhao.dataStatistics.common;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.retry.Retry;
+
+/**
+ * 单个上游服务的调用保护
+ * <ul>
+ *     <li>熔断：连续失败达到阈值后打开，打开期间直接失败；冷却后半开放行少量试探请求，成功则关闭</li>
+ *     <li>自适应超时：按最近单次请求耗时（不含重试与退避）的 p99 计算超时，样本不足时使用默认值</li>
+ *     <li>重试：仅对连接类错误重试，并受全局 {@link RetryBudget} 限制</li>
+ * </ul>
+ * 熔断打开时调用方的 {@link RefreshingCache} 会继续返回旧数据。
+ * 绑定 MeterRegistry 后记录请求耗时直方图、重试次数、熔断拒绝次数、熔断状态与当前超时。
+ *
+ * @since 1.0.6
+ */
+@Slf4j
+public class UpstreamGuard implements MeterBinder {
+
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    private static final int HALF_OPEN_PERMITS = 3;
+
+    private static final int LATENCY_WINDOW = 128;
+    private static final int MIN_SAMPLES = 20;
+    private static final int TIMEOUT_MULTIPLIER = 4;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration MIN_TIMEOUT = Duration.ofSeconds(3);
+    private static final Duration MAX_TIMEOUT = Duration.ofSeconds(15);
+
+    private static final int MAX_RETRIES = 2;
+
+    private final String name;
+    private final RetryBudget retryBudget;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private int halfOpenPermits;
+
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int latencyIndex;
+    private volatile long timeoutMillis = DEFAULT_TIMEOUT.toMillis();
+
+    private volatile Timer successTimer;
+    private volatile Timer failureTimer;
+    private volatile Counter retryCounter;
+    private volatile Counter rejectedCounter;
+
+    public UpstreamGuard(String name, RetryBudget retryBudget) {
+        this.name = name;
+        this.retryBudget = retryBudget;
+    }
+
+    /**
+     * 在保护下执行请求
+     *
+     * @param request 请求，每次重试会重新订阅
+     * @param operationName 操作名，用于日志
+     */
+    public <T> Mono<T> execute(Mono<T> request, String operationName) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                increment(rejectedCounter);
+                return Mono.error(new CircuitOpenException(name));
+            }
+            retryBudget.deposit();
+            Duration timeout = Duration.ofMillis(timeoutMillis);
+            // 每次尝试单独计时，重试与退避等待不计入耗时样本
+            Mono<T> attempt = Mono.defer(() -> {
+                long start = System.nanoTime();
+                return request
+                    .timeout(timeout)
+                    .doOnSuccess(value -> {
+                        long elapsed = System.nanoTime() - start;
+                        record(successTimer, elapsed);
+                        onSuccess(elapsed);
+                    })
+                    .doOnError(e -> record(failureTimer, System.nanoTime() - start));
+            });
+            return attempt
+                .retryWhen(Retry.backoff(MAX_RETRIES, Duration.ofMillis(500))
+                    .maxBackoff(Duration.ofSeconds(2))
+                    .filter(throwable -> throwable instanceof WebClientRequestException
+                        && retryBudget.tryWithdraw())
+                    .doBeforeRetry(signal -> increment(retryCounter))
+                    .doBeforeRetry(signal -> log.warn("{} 请求失败，正在重试 ({}/{}): {}",
+                        operationName, signal.totalRetries() + 1, MAX_RETRIES, signal.failure().getMessage()))
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .doOnError(e -> onError(e, timeout))
+                .doFinally(signal -> {
+                    if (signal == SignalType.CANCEL) {
+                        onCancel();
+                    }
+                });
+        });
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public Duration getTimeout() {
+        return Duration.ofMillis(timeoutMillis);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        successTimer = requestTimer(registry, "success");
+        failureTimer = requestTimer(registry, "failure");
+        retryCounter = Counter.builder("data.statistics.upstream.retries")
+            .description("上游请求重试次数")
+            .tag("upstream", name)
+            .register(registry);
+        rejectedCounter = Counter.builder("data.statistics.upstream.rejected")
+            .description("熔断期间被直接拒绝的请求数")
+            .tag("upstream", name)
+            .register(registry);
+        Gauge.builder("data.statistics.upstream.circuit.state", this, guard -> guard.getState().ordinal())
+            .description("熔断状态：0 关闭，1 打开，2 半开")
+            .tag("upstream", name)
+            .register(registry);
+        Gauge.builder("data.statistics.upstream.timeout", this, guard -> guard.timeoutMillis)
+            .description("当前自适应超时")
+            .tag("upstream", name)
+            .baseUnit("milliseconds")
+            .register(registry);
+    }
+
+    private Timer requestTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("data.statistics.upstream.requests")
+            .description("上游单次请求耗时，不含重试")
+            .tag("upstream", name)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(10))
+            .maximumExpectedValue(MAX_TIMEOUT)
+            .register(registry);
+    }
+
+    private static void record(Timer timer, long elapsedNanos) {
+        if (timer != null) {
+            timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < OPEN_DURATION.toMillis()) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = HALF_OPEN_PERMITS;
+            log.info("[{}] 熔断冷却结束，进入半开状态", name);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    private synchronized void onSuccess(long elapsedNanos) {
+        recordLatency(elapsedNanos / 1_000_000);
+        markAvailable();
+    }
+
+    private void markAvailable() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            log.info("[{}] 试探请求成功，熔断关闭", name);
+        }
+    }
+
+    private synchronized void onError(Throwable e, Duration timeout) {
+        if (hasCause(e, CircuitOpenException.class)) {
+            return;
+        }
+        if (!isUpstreamFailure(e)) {
+            // 上游有响应，只是请求本身被拒绝，说明服务可用
+            markAvailable();
+            return;
+        }
+        if (e instanceof TimeoutException) {
+            log.debug("[{}] 请求超过 {} ms 未响应", name, timeout.toMillis());
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= FAILURE_THRESHOLD) {
+            if (state != State.OPEN) {
+                log.warn("[{}] 连续失败 {} 次，熔断打开 {} 秒: {}",
+                    name, consecutiveFailures, OPEN_DURATION.toSeconds(), e.getMessage());
+            }
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * 半开状态下被取消的试探请求归还名额
+     */
+    private synchronized void onCancel() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    /**
+     * 连接失败、超时与 5xx 视为上游故障，4xx 属于请求本身的问题；异常可能被包装，需检查整条原因链
+     */
+    private static boolean isUpstreamFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException responseException) {
+                return responseException.getStatusCode().is5xxServerError();
+            }
+            if (cause instanceof WebClientRequestException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordLatency(long millis) {
+        latencies[latencyIndex] = millis;
+        latencyIndex = (latencyIndex + 1) % LATENCY_WINDOW;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+        // 每积累一批样本重新计算一次超时
+        if (latencyCount >= MIN_SAMPLES && latencyIndex % 16 == 0) {
+            long[] samples = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(samples);
+            long p99 = samples[Math.min((int) Math.ceil(samples.length * 0.99) - 1, samples.length - 1)];
+            timeoutMillis = Math.max(MIN_TIMEOUT.toMillis(),
+                Math.min(MAX_TIMEOUT.toMillis(), p99 * TIMEOUT_MULTIPLIER));
+        }
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * 熔断打开期间的快速失败
+     */
+    public static class CircuitOpenException extends IllegalStateException {
+        public CircuitOpenException(String name) {
+            super(name + " 暂时不可用（熔断中），请稍后重试");
+        }
+    }
+}
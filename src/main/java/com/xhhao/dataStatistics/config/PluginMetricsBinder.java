@@ -0,0 +1,63 @@
+package com.xhhao.dataStatistics.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 将插件内的 {@link MeterBinder} 绑定到 Halo 的 MeterRegistry
+ * <p>插件上下文不会像 Spring Boot 应用那样自动绑定 MeterBinder，这里在单例初始化完成后统一绑定，
+ * 只取插件自身上下文中的 Bean，不包含父上下文。取不到 MeterRegistry 时使用全局注册表，
+ * Spring Boot 会把应用的注册表加入全局注册表，指标同样可通过 actuator/prometheus 获取。</p>
+ * <p>注册表由 Halo 共享，插件停止时必须移除本插件注册的指标：Micrometer 对已存在的 id 直接返回旧指标，
+ * 不移除的话重新加载后的 Gauge 仍指向已停止实例的对象，新实例的数据不会被采集。
+ * 插件的指标名均以 {@value #METER_PREFIX} 开头，按前缀移除也能覆盖绑定后按需注册的指标。</p>
+ *
+ * @since 1.0.6
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PluginMetricsBinder implements SmartInitializingSingleton, DisposableBean {
+
+    static final String METER_PREFIX = "data.statistics.";
+
+    private final ListableBeanFactory beanFactory;
+    private final ObjectProvider<MeterRegistry> registryProvider;
+
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        MeterRegistry registry = registryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+        this.registry = registry;
+        var binders = beanFactory.getBeansOfType(MeterBinder.class);
+        binders.values().forEach(binder -> binder.bindTo(registry));
+        log.debug("已将 {} 个指标绑定到 {}", binders.size(), registry.getClass().getSimpleName());
+    }
+
+    @Override
+    public void destroy() {
+        MeterRegistry registry = this.registry;
+        if (registry == null) {
+            return;
+        }
+        List<Meter> meters = registry.getMeters().stream()
+            .filter(meter -> meter.getId().getName().startsWith(METER_PREFIX))
+            .toList();
+        meters.forEach(registry::remove);
+        this.registry = null;
+        log.debug("已从 {} 移除 {} 个插件指标", registry.getClass().getSimpleName(), meters.size());
+    }
+}
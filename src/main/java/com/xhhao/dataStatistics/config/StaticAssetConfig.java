@@ -0,0 +1,59 @@
+package com.xhhao.dataStatistics.config;
+
+import java.time.Duration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.xhhao.dataStatistics.common.RequestUtils;
+import com.xhhao.dataStatistics.process.AssetManifest;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 带内容哈希的静态资源路由
+ * <p>文件名随内容变化，响应可永久缓存（immutable），客户端支持时直接返回构建时预压缩的 .gz 文件。</p>
+ *
+ * @since 1.0.6
+ */
+@Configuration
+public class StaticAssetConfig {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+        .cachePublic()
+        .immutable();
+
+    @Bean
+    public RouterFunction<ServerResponse> dataStatisticsAssetRouter(AssetManifest assetManifest) {
+        return RouterFunctions.route()
+            .GET(AssetManifest.DIST_URL_PREFIX + "{fileName}", request -> serve(request, assetManifest))
+            .build();
+    }
+
+    private Mono<ServerResponse> serve(ServerRequest request, AssetManifest assetManifest) {
+        String fileName = request.pathVariable("fileName");
+        if (!assetManifest.contains(fileName)) {
+            return ServerResponse.notFound().build();
+        }
+        boolean gzip = assetManifest.hasGzip(fileName) && RequestUtils.acceptsGzip(request);
+        return ServerResponse.ok()
+            .contentType(MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM))
+            .cacheControl(IMMUTABLE)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .headers(headers -> {
+                if (gzip) {
+                    headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                }
+            })
+            .body(BodyInserters.fromResource(assetManifest.resource(gzip ? fileName + ".gz" : fileName)));
+    }
+}
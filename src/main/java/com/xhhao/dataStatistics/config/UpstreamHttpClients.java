@@ -0,0 +1,105 @@
+package com.xhhao.dataStatistics.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.xhhao.dataStatistics.common.ConfigUtils;
+import com.xhhao.dataStatistics.common.SettingsChangedEvent;
+import com.xhhao.dataStatistics.service.SettingConfigGetter;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * 按上游服务划分的 HTTP 连接池
+ * <p>每个上游使用独立命名的连接池（data-statistics-umami、data-statistics-uptime-kuma），
+ * 一个上游变慢不会占满其他上游的连接。连接数可在高级设置中调整，变更后新建连接池，旧连接池在请求结束后释放。</p>
+ *
+ * @since 1.0.6
+ */
+@Slf4j
+@Component
+public class UpstreamHttpClients implements DisposableBean {
+
+    public static final String UMAMI = "umami";
+    public static final String UPTIME_KUMA = "uptime-kuma";
+
+    public static final int DEFAULT_UMAMI_MAX_CONNECTIONS = 20;
+    public static final int DEFAULT_UPTIME_MAX_CONNECTIONS = 10;
+
+    private final SettingConfigGetter settingConfigGetter;
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+    private final Map<String, Integer> maxConnections = new ConcurrentHashMap<>(Map.of(
+        UMAMI, DEFAULT_UMAMI_MAX_CONNECTIONS,
+        UPTIME_KUMA, DEFAULT_UPTIME_MAX_CONNECTIONS));
+
+    public UpstreamHttpClients(SettingConfigGetter settingConfigGetter) {
+        this.settingConfigGetter = settingConfigGetter;
+        reloadPoolSizes();
+    }
+
+    /**
+     * 获取指定上游的 WebClient.Builder，每次返回新的 Builder
+     */
+    public WebClient.Builder builder(String upstream) {
+        return WebClient.builder().clientConnector(connector(upstream));
+    }
+
+    /**
+     * 始终转发到该上游当前连接池的连接器，连接池重建后已创建的 WebClient 无需重建
+     */
+    private ClientHttpConnector connector(String upstream) {
+        return (method, uri, requestCallback) -> pool(upstream).connector().connect(method, uri, requestCallback);
+    }
+
+    private Pool pool(String upstream) {
+        return pools.computeIfAbsent(upstream, name -> {
+            int size = maxConnections.getOrDefault(name, DEFAULT_UPTIME_MAX_CONNECTIONS);
+            ConnectionProvider provider = WebClientConfig.createConnectionProvider(name, size);
+            return new Pool(provider, new ReactorClientHttpConnector(WebClientConfig.createHttpClient(provider)), size);
+        });
+    }
+
+    @EventListener(SettingsChangedEvent.class)
+    public void onSettingsChanged(SettingsChangedEvent event) {
+        if (event.affects(SettingConfigGetter.AdvancedConfig.GROUP)) {
+            reloadPoolSizes();
+        }
+    }
+
+    private void reloadPoolSizes() {
+        settingConfigGetter.getAdvancedConfig()
+            .subscribe(config -> {
+                resize(UMAMI, ConfigUtils.positiveOrDefault(config.getUmamiMaxConnections(),
+                    DEFAULT_UMAMI_MAX_CONNECTIONS));
+                resize(UPTIME_KUMA, ConfigUtils.positiveOrDefault(config.getUptimeMaxConnections(),
+                    DEFAULT_UPTIME_MAX_CONNECTIONS));
+            }, e -> log.warn("读取连接池设置失败，使用默认值: {}", e.getMessage()));
+    }
+
+    private void resize(String upstream, int size) {
+        Integer previous = maxConnections.put(upstream, size);
+        if (previous == null || previous != size) {
+            Pool old = pools.remove(upstream);
+            if (old != null) {
+                log.info("[{}] 连接池大小 {} -> {}，重建连接池", upstream, old.maxConnections(), size);
+                old.provider().disposeLater().subscribe();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        pools.values().forEach(pool -> pool.provider().dispose());
+        pools.clear();
+    }
+
+    private record Pool(ConnectionProvider provider, ReactorClientHttpConnector connector, int maxConnections) {}
+}
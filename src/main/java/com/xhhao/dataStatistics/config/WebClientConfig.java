@@ -4,16 +4,17 @@ import java.time.Duration;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.reactive.function.client.WebClient;
+
+import com.xhhao.dataStatistics.common.RetryBudget;
 
 import io.netty.channel.ChannelOption;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.resources.ConnectionProvider;
 
 /**
  * WebClient 配置类
- * 提供 WebClient.Builder 和 WebClient Bean 供其他组件使用
+ * 提供上游共享的重试预算与创建连接池、HttpClient 的方法，各上游服务的独立连接池见 {@link UpstreamHttpClients}
  *
  * @author Handsome
  * @since 1.0.5
@@ -21,45 +22,37 @@ import reactor.netty.resources.ConnectionProvider;
 @Configuration
 public class WebClientConfig {
 
+    private static final String POOL_NAME_PREFIX = "data-statistics";
+
     /**
-     * 配置连接池，设置空闲超时时间避免复用已关闭的连接
+     * 所有上游共享的重试预算：重试量不超过请求量的 20%，最多累积 10 次
      */
     @Bean
-    public ConnectionProvider connectionProvider() {
-        return ConnectionProvider.builder("data-statistics")
-            .maxConnections(50)
-            .maxIdleTime(Duration.ofSeconds(20))       // 空闲连接最大存活时间
-            .maxLifeTime(Duration.ofSeconds(60))       // 连接最大生命周期
+    public RetryBudget upstreamRetryBudget() {
+        return new RetryBudget(0.2, 10);
+    }
+
+    /**
+     * 创建命名连接池，并开启 Reactor Netty 连接池指标（reactor.netty.connection.provider.*）
+     */
+    static ConnectionProvider createConnectionProvider(String name, int maxConnections) {
+        return ConnectionProvider.builder(POOL_NAME_PREFIX + "-" + name)
+            .maxConnections(maxConnections)
+            .maxIdleTime(Duration.ofSeconds(30))       // 空闲连接最大存活时间，需小于上游的 keep-alive 超时
+            .maxLifeTime(Duration.ofMinutes(10))       // 连接最大生命周期，减少 TLS 重新握手
             .pendingAcquireTimeout(Duration.ofSeconds(30))
             .evictInBackground(Duration.ofSeconds(30)) // 后台定期清理过期连接
+            .metrics(true)
             .build();
     }
 
     /**
-     * 配置 HttpClient
+     * 创建 HttpClient，HTTPS 上游通过 ALPN 协商 HTTP/2，不支持时回退 HTTP/1.1
      */
-    @Bean
-    public HttpClient httpClient(ConnectionProvider connectionProvider) {
+    static HttpClient createHttpClient(ConnectionProvider connectionProvider) {
         return HttpClient.create(connectionProvider)
+            .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
             .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000)  // 连接超时 10 秒
             .responseTimeout(Duration.ofSeconds(30));              // 响应超时 30 秒
     }
-
-    /**
-     * 提供 WebClient.Builder（用于需要自定义 baseUrl 的场景）
-     */
-    @Bean
-    public WebClient.Builder webClientBuilder(HttpClient httpClient) {
-        return WebClient.builder()
-            .clientConnector(new ReactorClientHttpConnector(httpClient));
-    }
-
-    /**
-     * 提供预配置的 WebClient 实例（用于不需要自定义 baseUrl 的场景）
-     */
-    @Bean
-    public WebClient webClient(WebClient.Builder webClientBuilder) {
-        return webClientBuilder.build();
-    }
 }
-
@@ -4,15 +4,33 @@ import static org.springdoc.core.fn.builders.apiresponse.Builder.responseBuilder
 import static org.springdoc.core.fn.builders.parameter.Builder.parameterBuilder;
 import static org.springdoc.core.fn.builders.schema.Builder.schemaBuilder;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
 import org.springdoc.webflux.core.fn.SpringdocRouteBuilder;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
+import com.xhhao.dataStatistics.aggregate.Granularity;
 import com.xhhao.dataStatistics.common.ApiResponse;
 import com.xhhao.dataStatistics.common.Constants;
+import com.xhhao.dataStatistics.common.RequestUtils;
+import com.xhhao.dataStatistics.common.SerializedPayload;
+import com.xhhao.dataStatistics.service.RealtimeStreamService;
 import com.xhhao.dataStatistics.service.SettingConfigGetter;
 import com.xhhao.dataStatistics.service.StatisticalService;
 import com.xhhao.dataStatistics.service.UmamiService;
@@ -31,11 +49,19 @@ import run.halo.app.extension.GroupVersion;
 @RequiredArgsConstructor
 public class DataStatisticsEndpoint implements CustomEndpoint {
 
+    private static final Duration CHART_MAX_AGE = Duration.ofSeconds(60);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final long MAX_DAILY_HISTOGRAM_DAYS = 3660;
+    private static final long MAX_HISTOGRAM_DAYS = 36600;
+    private static final Duration WIDGET_TIMEOUT = Duration.ofSeconds(10);
+    private static final List<String> DASHBOARD_WIDGETS = List.of("chart", "visits", "realtime", "uptime", "github");
+
     private final String tag = "api.data.statistics.xhhao.com/v1alpha1/statistics";
     private final StatisticalService statisticalService;
     private final UmamiService umamiService;
     private final UptimeKumaService uptimeKumaService;
     private final SettingConfigGetter settingConfigGetter;
+    private final RealtimeStreamService realtimeStreamService;
 
     @Override
     public RouterFunction<ServerResponse> endpoint() {
@@ -50,6 +76,98 @@ public class DataStatisticsEndpoint implements CustomEndpoint {
                         .description("成功返回图表数据")
                     );
             })
+            .GET("/chart/data/articles", this::fetchArticleHistogram, builder -> {
+                builder.operationId("fetchArticleHistogram")
+                    .description("按时间范围与粒度获取文章发布统计")
+                    .tag(tag)
+                    .parameter(parameterBuilder()
+                        .name("from")
+                        .description("开始日期（含），格式 yyyy-MM-dd，默认一年前")
+                        .required(false)
+                        .schema(schemaBuilder()
+                            .type("string")
+                            .example("2016-01-01")
+                        )
+                    )
+                    .parameter(parameterBuilder()
+                        .name("to")
+                        .description("结束日期（含），格式 yyyy-MM-dd，默认今天")
+                        .required(false)
+                        .schema(schemaBuilder()
+                            .type("string")
+                            .example("2025-12-31")
+                        )
+                    )
+                    .parameter(parameterBuilder()
+                        .name("granularity")
+                        .description("统计粒度，可选值：day(默认), week, month, year")
+                        .required(false)
+                        .schema(schemaBuilder()
+                            .type("string")
+                            .example("month")
+                        )
+                    )
+                    .response(responseBuilder()
+                        .implementation(PieChartVO.Article.class)
+                        .responseCode("200")
+                        .description("成功返回按时间正序排列的发布统计")
+                    );
+            })
+            .GET("/chart/comments", this::fetchCommentLeaderboard, builder -> {
+                builder.operationId("fetchCommentLeaderboard")
+                    .description("分页获取评论活跃用户排行")
+                    .tag(tag)
+                    .parameter(parameterBuilder()
+                        .name("page")
+                        .description("页码，从 1 开始，默认 1")
+                        .required(false)
+                        .schema(schemaBuilder()
+                            .type("integer")
+                            .example("1")
+                        )
+                    )
+                    .parameter(parameterBuilder()
+                        .name("size")
+                        .description("每页条数，默认 20，最大 100")
+                        .required(false)
+                        .schema(schemaBuilder()
+                            .type("integer")
+                            .example("20")
+                        )
+                    )
+                    .response(responseBuilder()
+                        .responseCode("200")
+                        .description("成功返回评论排行分页数据")
+                    );
+            })
+            .GET("/dashboard", this::fetchDashboard, builder -> {
+                builder.operationId("fetchDashboard")
+                    .description("一次请求并行获取多个组件的数据，单个组件失败或超时不影响其他组件")
+                    .tag(tag)
+                    .parameter(parameterBuilder()
+                        .name("widgets")
+                        .description("组件列表，逗号分隔，可选值：chart, visits, realtime, uptime, github，默认全部")
+                        .required(false)
+                        .schema(schemaBuilder()
+                            .type("string")
+                            .example("visits,realtime")
+                        )
+                    )
+                    .parameter(parameterBuilder()
+                        .name("type")
+                        .description("visits 组件的统计类型，同 /umami/visits，默认 daily")
+                        .required(false)
+                        .schema(schemaBuilder()
+                            .type("string")
+                            .example("weekly")
+                        )
+                    )
+                    .response(responseBuilder()
+                        .implementation(DashboardResponse.class)
+                        .responseCode("200")
+                        .description("data 为各组件数据，errors 为失败组件的错误信息")
+                    );
+            })
             .GET("/umami/websites", this::fetchUmamiWebsites, builder -> {
                 builder.operationId("fetchUmamiWebsites")
                     .description("获取Umami网站列表")
@@ -81,6 +199,14 @@ public class DataStatisticsEndpoint implements CustomEndpoint {
                 builder.operationId("fetchRealtimeVisits")
                     .description("获取实时访问统计")
                     .tag(tag)
+                    .parameter(parameterBuilder()
+                        .name("websiteId")
+                        .description("Umami 网站 ID，可选；只接受插件设置（或自动解析）的网站 ID，其他值返回 400")
+                        .required(false)
+                        .schema(schemaBuilder()
+                            .type("string")
+                        )
+                    )
                     .response(responseBuilder()
                         .responseCode("200")
                         .description("成功返回实时访问数据")
@@ -92,7 +218,19 @@ public class DataStatisticsEndpoint implements CustomEndpoint {
                     .tag(tag)
                     .response(responseBuilder()
                         .responseCode("200")
-                        .description("成功返回状态码：1-所有业务正常，0-全部业务异常，2-部分业务异常")
+                        .description("成功返回各状态页汇总：status（1-所有业务正常，0-全部业务异常，2-部分业务异常，"
+                            + "维护中与等待中的监控项不计为异常）、statusPageUrl、pages（各状态页标题、状态与监控项明细）、"
+                            + "updatedAt")
+                    );
+            })
+            .GET("/stream", this::streamRealtime, builder -> {
+                builder.operationId("streamRealtime")
+                    .description("以 Server-Sent Events 推送实时访问与 Uptime Kuma 状态，事件类型为 realtime 和 uptime，"
+                        + "拉取失败时推送 realtime-error 或 uptime-error")
+                    .tag(tag)
+                    .response(responseBuilder()
+                        .responseCode("200")
+                        .description("text/event-stream，连接建立后立即推送各类数据的最新值")
                     );
             })
             .GET("/github/config", this::fetchGithubConfig, builder -> {
@@ -118,12 +256,174 @@ public class DataStatisticsEndpoint implements CustomEndpoint {
     }
 
     private Mono<ServerResponse> fetchChartData(ServerRequest request) {
-        return statisticalService.getPieChartVO()
-            .flatMap(dataSource -> ServerResponse.ok().bodyValue(dataSource))
+        return statisticalService.getChartPayload()
+            .flatMap(payload -> writePayload(request, payload))
             .switchIfEmpty(ServerResponse.ok().bodyValue(new PieChartVO()))
             .onErrorResume(e -> handleError("获取图表数据", e));
     }
 
+    /**
+     * 写出预序列化的响应体：命中 If-None-Match 返回 304，客户端支持 gzip 时直接返回压缩字节
+     */
+    private Mono<ServerResponse> writePayload(ServerRequest request, SerializedPayload payload) {
+        CacheControl cacheControl = CacheControl.maxAge(CHART_MAX_AGE).cachePublic().mustRevalidate();
+        if (isNotModified(request, payload.etag())) {
+            return ServerResponse.status(HttpStatus.NOT_MODIFIED)
+                .eTag(payload.etag())
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+        boolean gzip = RequestUtils.acceptsGzip(request);
+        return ServerResponse.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(payload.etag())
+            .lastModified(payload.lastModified())
+            .cacheControl(cacheControl)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .headers(headers -> {
+                if (gzip) {
+                    headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                }
+            })
+            .bodyValue(gzip ? payload.gzip() : payload.json());
+    }
+
+    private boolean isNotModified(ServerRequest request, String etag) {
+        List<String> ifNoneMatch = request.headers().header(HttpHeaders.IF_NONE_MATCH);
+        for (String value : ifNoneMatch) {
+            for (String tag : value.split(",")) {
+                String trimmed = StrUtil.removePrefix(tag.trim(), "W/");
+                if ("*".equals(trimmed) || etag.equals(trimmed)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Mono<ServerResponse> fetchArticleHistogram(ServerRequest request) {
+        Granularity granularity = Granularity.of(request.queryParam("granularity").orElse("day"));
+        LocalDate to;
+        LocalDate from;
+        try {
+            to = request.queryParam("to").map(LocalDate::parse)
+                .orElseGet(() -> LocalDate.now(Constants.DEFAULT_ZONE_ID));
+            from = request.queryParam("from").map(LocalDate::parse).orElseGet(() -> to.minusYears(1));
+        } catch (DateTimeParseException e) {
+            return ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.error("参数错误", "from 和 to 格式应为 yyyy-MM-dd"));
+        }
+        if (granularity == null) {
+            return ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.error("参数错误", "granularity 参数错误，支持的值: day, week, month, year"));
+        }
+        long days = ChronoUnit.DAYS.between(from, to);
+        long maxDays = granularity == Granularity.DAY ? MAX_DAILY_HISTOGRAM_DAYS : MAX_HISTOGRAM_DAYS;
+        if (days < 0 || days > maxDays) {
+            return ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.error("参数错误", "from 不能晚于 to，且按日统计最多 "
+                    + MAX_DAILY_HISTOGRAM_DAYS + " 天，其他粒度最多 " + MAX_HISTOGRAM_DAYS + " 天"));
+        }
+
+        return statisticalService.getArticleHistogram(from, to, granularity)
+            .flatMap(articles -> ServerResponse.ok().bodyValue(articles))
+            .onErrorResume(e -> handleError("获取文章发布统计", e));
+    }
+
+    private Mono<ServerResponse> fetchCommentLeaderboard(ServerRequest request) {
+        Integer page = parsePositiveInt(request.queryParam("page").orElse("1"));
+        Integer size = parsePositiveInt(request.queryParam("size").orElse("20"));
+        if (page == null || size == null || size > MAX_PAGE_SIZE) {
+            return ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.error("参数错误", "page 和 size 必须为正整数，size 最大为 " + MAX_PAGE_SIZE));
+        }
+
+        return statisticalService.getCommentLeaderboard(page, size)
+            .flatMap(result -> ServerResponse.ok().bodyValue(result))
+            .onErrorResume(e -> handleError("获取评论排行", e));
+    }
+
+    private Integer parsePositiveInt(String value) {
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            return parsed > 0 ? parsed : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Mono<ServerResponse> fetchDashboard(ServerRequest request) {
+        List<String> widgets = request.queryParam("widgets")
+            .filter(StrUtil::isNotBlank)
+            .map(value -> Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(StrUtil::isNotEmpty)
+                .distinct()
+                .toList())
+            .orElse(DASHBOARD_WIDGETS);
+        String type = request.queryParam("type").orElse("daily");
+        if (widgets.isEmpty() || !DASHBOARD_WIDGETS.containsAll(widgets)) {
+            return ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.error("参数错误", "widgets 参数错误，支持的值: " + String.join(", ", DASHBOARD_WIDGETS)));
+        }
+        if (widgets.contains("visits") && !type.matches("daily|weekly|monthly|quarterly|yearly")) {
+            return ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.error("参数错误", "type 参数错误，支持的值: daily, weekly, monthly, quarterly, yearly"));
+        }
+
+        List<Mono<WidgetResult>> results = widgets.stream()
+            .map(widget -> fetchWidget(widget, type))
+            .toList();
+        Mono<DashboardResponse> dashboard = Mono.zip(results, values -> {
+            Map<String, Object> data = new LinkedHashMap<>();
+            Map<String, String> errors = new LinkedHashMap<>();
+            for (Object value : values) {
+                WidgetResult result = (WidgetResult) value;
+                if (result.error() == null) {
+                    data.put(result.widget(), result.data());
+                } else {
+                    errors.put(result.widget(), result.error());
+                }
+            }
+            return new DashboardResponse(data, errors);
+        });
+        return dashboard
+            .flatMap(response -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(response))
+            .onErrorResume(e -> handleError("获取组件数据", e));
+    }
+
+    /**
+     * 获取单个组件数据，超时或失败时转为错误信息，不中断其他组件
+     */
+    private Mono<WidgetResult> fetchWidget(String widget, String type) {
+        Mono<?> source = switch (widget) {
+            case "chart" -> statisticalService.getPieChartVO();
+            case "visits" -> umamiService.getVisitStatistics(null, type);
+            case "realtime" -> umamiService.getRealtimeVisitStatistics(null);
+            case "uptime" -> uptimeKumaService.getStatusPage();
+            case "github" -> buildGithubConfig();
+            default -> Mono.error(new IllegalArgumentException("未知组件: " + widget));
+        };
+        return source
+            .timeout(WIDGET_TIMEOUT)
+            .<WidgetResult>map(data -> new WidgetResult(widget, data, null))
+            .defaultIfEmpty(new WidgetResult(widget, null, null))
+            .onErrorResume(e -> {
+                String message = e instanceof TimeoutException ? "请求超时" : e.getMessage();
+                log.warn("获取组件 {} 数据失败: {}", widget, message);
+                return Mono.just(new WidgetResult(widget, null, StrUtil.blankToDefault(message, "未知错误")));
+            });
+    }
+
     private Mono<ServerResponse> fetchUmamiWebsites(ServerRequest request) {
         return umamiService.getWebsites()
             .flatMap(data -> ServerResponse.ok().bodyValue(data))
@@ -144,12 +444,16 @@ public class DataStatisticsEndpoint implements CustomEndpoint {
             .onErrorResume(e -> handleError("获取" + typeParam + "访问统计", e));
     }
 
+    /**
+     * websiteId 只能是插件设置中的网站 ID，其他值返回 400，避免匿名调用方写入任意缓存条目
+     */
     private Mono<ServerResponse> fetchRealtimeVisits(ServerRequest request) {
-        String websiteIdParam = request.queryParam("websiteId").orElse("");
-        String finalWebsiteId = StrUtil.isBlank(websiteIdParam) ? null : websiteIdParam;
-        
-        return umamiService.getRealtimeVisitStatistics(finalWebsiteId)
+        String websiteId = request.queryParam("websiteId").filter(StrUtil::isNotBlank).orElse(null);
+        return umamiService.getRealtimeVisitStatistics(websiteId)
             .flatMap(data -> ServerResponse.ok().bodyValue(data))
+            .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ApiResponse.error("参数错误", e.getMessage())))
             .onErrorResume(e -> handleError("获取实时访问统计", e));
     }
 
@@ -159,7 +463,23 @@ public class DataStatisticsEndpoint implements CustomEndpoint {
             .onErrorResume(e -> handleError("获取 Uptime Kuma 状态页面", e));
     }
 
+    private Mono<ServerResponse> streamRealtime(ServerRequest request) {
+        return ServerResponse.ok()
+            .contentType(MediaType.TEXT_EVENT_STREAM)
+            .cacheControl(CacheControl.noCache())
+            .header("X-Accel-Buffering", "no")
+            .body(BodyInserters.fromServerSentEvents(realtimeStreamService.subscribe()));
+    }
+
     private Mono<ServerResponse> fetchGithubConfig(ServerRequest request) {
+        return buildGithubConfig()
+            .flatMap(config -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(config))
+            .onErrorResume(e -> handleError("获取 GitHub 配置", e));
+    }
+
+    private Mono<GithubConfigResponse> buildGithubConfig() {
         return settingConfigGetter.getGithubConfig()
             .map(config -> {
                 String proxyUrl = StrUtil.isNotBlank(config.getProxyUrl()) 
@@ -169,11 +489,7 @@ public class DataStatisticsEndpoint implements CustomEndpoint {
                     ? normalizeUrl(config.getGraphProxyUrl(), Constants.DefaultUrls.GITHUB_GRAPH_URL)
                     : Constants.DefaultUrls.GITHUB_GRAPH_URL;
                 return new GithubConfigResponse(proxyUrl, config.getUsername(), graphProxyUrl);
-            })
-            .flatMap(config -> ServerResponse.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(config))
-            .onErrorResume(e -> handleError("获取 GitHub 配置", e));
+            });
     }
 
     private String normalizeUrl(String url, String defaultUrl) {
@@ -189,6 +505,10 @@ public class DataStatisticsEndpoint implements CustomEndpoint {
 
     private record GithubConfigResponse(String proxyUrl, String username, String graphProxyUrl) {}
 
+    private record WidgetResult(String widget, Object data, String error) {}
+
+    private record DashboardResponse(Map<String, Object> data, Map<String, String> errors) {}
+
     @Override
     public GroupVersion groupVersion() {
         return GroupVersion.parseAPIVersion("api.data.statistics.xhhao.com/v1alpha1");
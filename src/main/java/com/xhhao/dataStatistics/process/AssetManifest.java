@@ -0,0 +1,91 @@
+package com.xhhao.dataStatistics.process;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.pf4j.PluginWrapper;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 带内容哈希的静态资源清单
+ * <p>构建时由 hashAssets 任务生成 static/dist/manifest.json，记录原文件名到哈希文件名的映射。
+ * 清单不存在（如开发时未执行构建任务）时回退为带版本号参数的原始地址。</p>
+ *
+ * @since 1.0.6
+ */
+@Slf4j
+@Component
+public class AssetManifest {
+
+    public static final String DIST_URL_PREFIX = "/plugins/data-statistics/assets/dist/";
+
+    private static final String DIST_LOCATION = "static/dist/";
+    private static final String FALLBACK_URL_PREFIX = "/plugins/data-statistics/assets/static/min/";
+
+    private final String version;
+    private final Map<String, String> hashedNames;
+    private final Set<String> assets = new HashSet<>();
+    private final Set<String> gzipAssets = new HashSet<>();
+
+    public AssetManifest(PluginWrapper pluginWrapper) {
+        this.version = pluginWrapper.getDescriptor().getVersion();
+        this.hashedNames = loadManifest();
+        for (String hashedName : hashedNames.values()) {
+            assets.add(hashedName);
+            if (resource(hashedName + ".gz").exists()) {
+                gzipAssets.add(hashedName);
+            }
+        }
+    }
+
+    /**
+     * 获取资源地址，优先返回带内容哈希的地址
+     *
+     * @param fileName static/min 下的文件名，如 chart.umd.min.js
+     */
+    public String url(String fileName) {
+        String hashedName = hashedNames.get(fileName);
+        return hashedName != null
+            ? DIST_URL_PREFIX + hashedName
+            : FALLBACK_URL_PREFIX + fileName + "?version=" + version;
+    }
+
+    /**
+     * 是否为清单中的哈希资源，只有清单中的文件允许通过哈希地址访问
+     */
+    public boolean contains(String hashedName) {
+        return assets.contains(hashedName);
+    }
+
+    public boolean hasGzip(String hashedName) {
+        return gzipAssets.contains(hashedName);
+    }
+
+    public Resource resource(String hashedName) {
+        return new ClassPathResource(DIST_LOCATION + hashedName, AssetManifest.class.getClassLoader());
+    }
+
+    private Map<String, String> loadManifest() {
+        Resource manifest = resource("manifest.json");
+        if (!manifest.exists()) {
+            log.debug("未找到静态资源清单，使用带版本号的原始地址");
+            return Map.of();
+        }
+        try (InputStream in = manifest.getInputStream()) {
+            return Map.copyOf(new ObjectMapper().readValue(in, new TypeReference<Map<String, String>>() {}));
+        } catch (IOException e) {
+            log.warn("读取静态资源清单失败，使用带版本号的原始地址: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+}
@@ -1,47 +1,137 @@
 package com.xhhao.dataStatistics.process;
 
-import lombok.RequiredArgsConstructor;
-import org.pf4j.PluginWrapper;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.springframework.stereotype.Component;
 import org.springframework.util.PropertyPlaceholderHelper;
 import org.thymeleaf.context.ITemplateContext;
 import org.thymeleaf.model.IModel;
 import org.thymeleaf.model.IModelFactory;
+import org.thymeleaf.model.IText;
 import org.thymeleaf.processor.element.IElementModelStructureHandler;
+
+import com.xhhao.dataStatistics.service.SettingConfigGetter;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 import run.halo.app.theme.dialect.TemplateHeadProcessor;
-import java.util.Properties;
 
+/**
+ * 向主题页面 head 注入组件脚本与样式
+ * <p>注入内容只与插件构建产物有关，插件启动时按资源清单渲染一次；可在高级设置中限定只在部分模板注入。</p>
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class DataStatisticsProcess implements TemplateHeadProcessor {
 
     static final PropertyPlaceholderHelper PROPERTY_PLACEHOLDER_HELPER =
         new PropertyPlaceholderHelper("${", "}");
 
-    private final PluginWrapper pluginWrapper;
+    /**
+     * Halo 渲染主题模板时放入上下文的模板 ID，如 index、post、page
+     */
+    private static final String TEMPLATE_ID_VARIABLE = "_templateId";
+
+    /**
+     * 读取设置失败时使用的默认设置：所有页面都注入
+     */
+    private static final SettingConfigGetter.AdvancedConfig DEFAULT_ADVANCED_CONFIG =
+        new SettingConfigGetter.AdvancedConfig();
+
+    private final SettingConfigGetter settingConfigGetter;
+    private final String headFragment;
+
+    /**
+     * 由 headFragment 创建的不可变文本节点，首次渲染时创建后复用
+     */
+    private volatile IText headText;
+
+    private volatile InjectionRule injectionRule = InjectionRule.parse(null);
+
+    public DataStatisticsProcess(AssetManifest assetManifest, SettingConfigGetter settingConfigGetter) {
+        this.settingConfigGetter = settingConfigGetter;
+        this.headFragment = componentScript(assetManifest);
+    }
 
     @Override
     public Mono<Void> process(ITemplateContext context, IModel model,
         IElementModelStructureHandler structureHandler) {
-        final IModelFactory modelFactory = context.getModelFactory();
-        model.add(modelFactory.createText(componentScript()));
-        return Mono.empty();
+        return settingConfigGetter.getAdvancedConfig()
+            .defaultIfEmpty(DEFAULT_ADVANCED_CONFIG)
+            .onErrorResume(e -> {
+                log.warn("读取高级设置失败，按默认设置注入组件脚本: {}", e.getMessage());
+                return Mono.just(DEFAULT_ADVANCED_CONFIG);
+            })
+            .filter(config -> injectionRule(config.getInjectTemplates()).matches(context))
+            .doOnNext(config -> model.add(headText(context.getModelFactory())))
+            .then();
+    }
+
+    private IText headText(IModelFactory modelFactory) {
+        IText text = headText;
+        if (text == null) {
+            text = modelFactory.createText(headFragment);
+            headText = text;
+        }
+        return text;
+    }
+
+    private InjectionRule injectionRule(String templates) {
+        InjectionRule rule = injectionRule;
+        if (!StrUtil.equals(rule.raw(), templates)) {
+            rule = InjectionRule.parse(templates);
+            injectionRule = rule;
+        }
+        return rule;
     }
 
-    private String componentScript() {
+    private static String componentScript(AssetManifest assetManifest) {
 
         final Properties properties = new Properties();
-        properties.setProperty("version", pluginWrapper.getDescriptor().getVersion());
+        properties.setProperty("chartJs", assetManifest.url("chart.umd.min.js"));
+        properties.setProperty("siteChartsCss", assetManifest.url("siteCharts.min.css"));
+        properties.setProperty("siteChartsJs", assetManifest.url("siteCharts.min.js"));
+        properties.setProperty("dataStatisticsJs", assetManifest.url("dataStatistics.min.js"));
+        properties.setProperty("dataStatisticsCss", assetManifest.url("dataStatistics.min.css"));
 
+        properties.setProperty("loaderJs", assetManifest.url("loader.min.js"));
+
+        // 样式直接放在 head 中，避免组件先于样式渲染造成闪烁；脚本只注入加载器，
+        // 页面中存在组件容器时才由加载器下载图表库与组件代码
         return PROPERTY_PLACEHOLDER_HELPER.replacePlaceholders("""
             <!-- data-statistics start -->
-            <script defer src="/plugins/data-statistics/assets/static/min/chart.umd.min.js?version=${version}"></script>
-            <link rel="stylesheet" href="/plugins/data-statistics/assets/static/min/siteCharts.min.css?version=${version}" />
-            <script defer src="/plugins/data-statistics/assets/static/min/siteCharts.min.js?version=${version}"></script>
-            <script defer src="/plugins/data-statistics/assets/static/min/dataStatistics.min.js?version=${version}"></script>
-            <link rel="stylesheet" href="/plugins/data-statistics/assets/static/min/dataStatistics.min.css?version=${version}" />
+            <link rel="stylesheet" href="${siteChartsCss}" />
+            <link rel="stylesheet" href="${dataStatisticsCss}" />
+            <script defer src="${loaderJs}"
+                data-chart-js="${chartJs}"
+                data-site-charts-js="${siteChartsJs}"
+                data-data-statistics-js="${dataStatisticsJs}"></script>
             <!-- data-statistics end -->
             """, properties);
     }
-}
\ No newline at end of file
+
+    /**
+     * 注入范围：模板 ID 列表为空时所有页面都注入
+     */
+    private record InjectionRule(String raw, Set<String> templateIds) {
+
+        static InjectionRule parse(String raw) {
+            Set<String> templateIds = Arrays.stream(StrUtil.nullToEmpty(raw).split("[,\\s]+"))
+                .filter(StrUtil::isNotBlank)
+                .collect(Collectors.toUnmodifiableSet());
+            return new InjectionRule(raw, templateIds);
+        }
+
+        boolean matches(ITemplateContext context) {
+            if (templateIds.isEmpty()) {
+                return true;
+            }
+            Object templateId = context.getVariable(TEMPLATE_ID_VARIABLE);
+            return templateId != null && templateIds.contains(templateId.toString());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.xhhao.dataStatistics.reconciler;
+
+import org.springframework.stereotype.Component;
+
+import com.xhhao.dataStatistics.aggregate.ChartAggregateStore;
+
+import lombok.RequiredArgsConstructor;
+import run.halo.app.core.extension.content.Tag;
+import run.halo.app.extension.ExtensionClient;
+import run.halo.app.extension.controller.Controller;
+import run.halo.app.extension.controller.ControllerBuilder;
+import run.halo.app.extension.controller.Reconciler;
+
+/**
+ * 监听标签变更，增量维护图表聚合数据
+ *
+ * @since 1.0.6
+ */
+@Component
+@RequiredArgsConstructor
+public class TagStatisticsReconciler implements Reconciler<Reconciler.Request> {
+
+    private final ExtensionClient client;
+    private final ChartAggregateStore aggregateStore;
+
+    @Override
+    public Result reconcile(Request request) {
+        client.fetch(Tag.class, request.name())
+            .ifPresentOrElse(aggregateStore::upsertTag, () -> aggregateStore.removeTag(request.name()));
+        return Result.doNotRetry();
+    }
+
+    @Override
+    public Controller setupWith(ControllerBuilder builder) {
+        // 存量数据由 ChartAggregateStore 在插件启动时统一加载，这里只处理后续变更
+        return builder
+            .extension(new Tag())
+            .syncAllOnStart(false)
+            .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.xhhao.dataStatistics.service;
+
+/**
+ * 后台预取：按各数据源的间隔在缓存过期前刷新，使请求直接读取内存
+ */
+public interface PrefetchService {
+
+    /**
+     * 启动后台预取，重复调用无副作用
+     */
+    void start();
+
+    /**
+     * 停止后台预取，正在进行的刷新会被取消
+     */
+    void stop();
+}
@@ -0,0 +1,13 @@
+package com.xhhao.dataStatistics.service;
+
+import org.springframework.http.codec.ServerSentEvent;
+
+import reactor.core.publisher.Flux;
+
+public interface RealtimeStreamService {
+
+    /**
+     * 订阅实时数据推送，所有订阅者共享同一份上游拉取结果，订阅时先收到各类数据的最新值
+     */
+    Flux<ServerSentEvent<Object>> subscribe();
+}
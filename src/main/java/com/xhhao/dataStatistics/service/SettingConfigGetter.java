@@ -3,11 +3,15 @@ package com.xhhao.dataStatistics.service;
 import lombok.Data;
 import reactor.core.publisher.Mono;
 
+/**
+ * 插件设置读取，返回的设置对象为共享快照，调用方不应修改
+ */
 public interface SettingConfigGetter {
     Mono<BasicsConfig> getBasicsConfig();
     Mono<UmamiConfig> getUmamiConfig();
     Mono<UptimeConfig> getUptimeKumaConfig();
     Mono<GithubConfig> getGithubConfig();
+    Mono<AdvancedConfig> getAdvancedConfig();
     
     @Data
     class BasicsConfig {
@@ -34,5 +38,19 @@ public interface SettingConfigGetter {
         private String graphProxyUrl;
         private String username;
     }
+    @Data
+    class AdvancedConfig {
+        public static final String GROUP = "advanced";
+        private Integer chartCacheMinutes;
+        private Integer commentTopN;
+        private Integer umamiMaxConnections;
+        private Integer uptimeMaxConnections;
+        private String injectTemplates;
+        private Integer chartRefreshSeconds;
+        private Integer umamiRefreshSeconds;
+        private Integer uptimeRefreshSeconds;
+        private Integer prefetchIdleMinutes;
+        private String snapshotDir;
+    }
     
 }
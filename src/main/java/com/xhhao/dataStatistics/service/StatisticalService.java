@@ -1,8 +1,49 @@
 package com.xhhao.dataStatistics.service;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.xhhao.dataStatistics.aggregate.Granularity;
+import com.xhhao.dataStatistics.common.SerializedPayload;
 import com.xhhao.dataStatistics.vo.PieChartVO;
 import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListResult;
 
 public interface StatisticalService {
     Mono<PieChartVO> getPieChartVO();
+
+    /**
+     * 获取预序列化、预压缩的图表数据，数据未变化时返回同一实例
+     */
+    Mono<SerializedPayload> getChartPayload();
+
+    /**
+     * 分页获取完整评论排行，页码从 1 开始
+     */
+    Mono<ListResult<PieChartVO.Comment>> getCommentLeaderboard(int page, int size);
+
+    /**
+     * 按粒度获取 [from, to] 区间内的文章发布数，按时间正序返回
+     */
+    Mono<List<PieChartVO.Article>> getArticleHistogram(LocalDate from, LocalDate to, Granularity granularity);
+
+    /**
+     * 从磁盘快照恢复图表数据，恢复的数据会被视为过期并在下次读取时后台刷新
+     */
+    Mono<Void> restoreSnapshot();
+
+    /**
+     * 将当前图表数据写入磁盘快照
+     */
+    Mono<Void> saveSnapshot();
+
+    /**
+     * 后台预取：刷新最近被访问过且即将过期的缓存数据
+     *
+     * @param activeWithin 只刷新在该时长内被访问过的数据
+     * @param lead 在该时长内将过期的数据也会刷新
+     * @param concurrency 同时刷新的数量上限
+     */
+    Mono<Void> prefetch(Duration activeWithin, Duration lead, int concurrency);
 }
@@ -1,5 +1,7 @@
 package com.xhhao.dataStatistics.service;
 
+import java.time.Duration;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import reactor.core.publisher.Mono;
 
@@ -7,7 +9,17 @@ public interface UmamiService {
     Mono<String> getToken();
     Mono<JsonNode> getWebsites();
     Mono<JsonNode> getRealtimeData(String websiteId);
+
+    /**
+     * 获取最新的实时数据，缓存过期时等待刷新完成而不返回旧值，供推送使用
+     */
+    Mono<JsonNode> getFreshRealtimeData();
     Mono<JsonNode> getVisitStatistics(String websiteId, String type);
     Mono<JsonNode> getRealtimeVisitStatistics(String websiteId);
+
+    /**
+     * 后台预取：刷新最近被访问过且即将过期的网站 ID 与统计数据
+     */
+    Mono<Void> prefetch(Duration activeWithin, Duration lead, int concurrency);
 }
 
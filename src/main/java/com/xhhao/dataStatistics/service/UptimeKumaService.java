@@ -1,10 +1,53 @@
 package com.xhhao.dataStatistics.service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
 import reactor.core.publisher.Mono;
 
 public interface UptimeKumaService {
     Mono<UptimeStatus> getStatusPage();
 
-    record UptimeStatus(int status, String statusPageUrl) {}
-}
+    /**
+     * 获取最新的状态，缓存过期的状态页等待刷新完成而不返回旧值，供推送使用
+     */
+    Mono<UptimeStatus> getFreshStatusPage();
+
+    /**
+     * 后台预取：刷新最近被访问过且即将过期的缓存数据
+     *
+     * @param activeWithin 只刷新在该时长内被访问过的数据
+     * @param lead 在该时长内将过期的数据也会刷新
+     * @param concurrency 同时刷新的数量上限
+     */
+    Mono<Void> prefetch(Duration activeWithin, Duration lead, int concurrency);
 
+    /**
+     * 所有状态页的汇总状态
+     *
+     * @param status 1-所有业务正常，0-全部业务异常，2-部分业务异常
+     * @param statusPageUrl 第一个状态页地址，用于前端跳转
+     * @param pages 各状态页明细
+     * @param updatedAt 各状态页中最早的拉取时间
+     */
+    record UptimeStatus(int status, String statusPageUrl, List<StatusPage> pages, Instant updatedAt) {}
+
+    /**
+     * 单个状态页
+     *
+     * @param fetchedAt 拉取时间
+     * @param error 拉取失败时的错误信息，成功时为 null
+     */
+    record StatusPage(String url, String title, int status, List<Monitor> monitors, Instant fetchedAt,
+                      String error) {}
+
+    /**
+     * 单个监控项
+     *
+     * @param status 最近一次心跳状态：0-异常，1-正常，2-等待中，3-维护中，无心跳时为 null
+     * @param uptime24h 24 小时可用率（0~1），无数据时为 null
+     * @param latency 最近一次响应时间（毫秒），无数据时为 null
+     */
+    record Monitor(long id, String name, String group, Integer status, Double uptime24h, Integer latency) {}
+}
@@ -0,0 +1,155 @@
+package com.xhhao.dataStatistics.service.impl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.xhhao.dataStatistics.common.ConfigUtils;
+import com.xhhao.dataStatistics.common.Constants;
+import com.xhhao.dataStatistics.service.PrefetchService;
+import com.xhhao.dataStatistics.service.SettingConfigGetter;
+import com.xhhao.dataStatistics.service.SettingConfigGetter.AdvancedConfig;
+import com.xhhao.dataStatistics.service.StatisticalService;
+import com.xhhao.dataStatistics.service.UmamiService;
+import com.xhhao.dataStatistics.service.UptimeKumaService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 后台预取调度
+ * <ul>
+ *     <li>每个数据源按高级设置中的间隔刷新，间隔加入随机抖动，避免各数据源同时请求上游</li>
+ *     <li>同时刷新的数据源与缓存条目数量有上限，上一轮未完成时跳过本轮</li>
+ *     <li>只刷新在空闲时间内被访问过的缓存条目，无人访问时不产生上游请求</li>
+ * </ul>
+ *
+ * @since 1.0.6
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PrefetchServiceImpl implements PrefetchService {
+
+    /**
+     * 同时刷新的数据源数量上限
+     */
+    private static final int MAX_CONCURRENT_SOURCES = 2;
+
+    /**
+     * 单个数据源内同时刷新的缓存条目数量上限
+     */
+    private static final int MAX_CONCURRENT_ENTRIES = 4;
+
+    /**
+     * 间隔的随机抖动比例
+     */
+    private static final double JITTER = 0.2;
+
+    /**
+     * 数据源关闭刷新时，重新读取设置的间隔
+     */
+    private static final Duration DISABLED_RECHECK = Duration.ofMinutes(1);
+
+    private final SettingConfigGetter settingConfigGetter;
+    private final StatisticalService statisticalService;
+    private final UmamiService umamiService;
+    private final UptimeKumaService uptimeKumaService;
+
+    private Disposable running;
+
+    @Override
+    public synchronized void start() {
+        if (running != null && !running.isDisposed()) {
+            return;
+        }
+        List<Source> sources = List.of(
+            new Source("chart", AdvancedConfig::getChartRefreshSeconds,
+                Constants.Prefetch.CHART_REFRESH_SECONDS, statisticalService::prefetch),
+            new Source("umami", AdvancedConfig::getUmamiRefreshSeconds,
+                Constants.Prefetch.UMAMI_REFRESH_SECONDS, umamiService::prefetch),
+            new Source("uptime-kuma", AdvancedConfig::getUptimeRefreshSeconds,
+                Constants.Prefetch.UPTIME_REFRESH_SECONDS, uptimeKumaService::prefetch));
+        running = Flux.fromIterable(sources)
+            .flatMap(this::ticks)
+            // 刷新名额已满时丢弃到期的轮次，等下一个间隔再刷新
+            .onBackpressureDrop(tick -> log.debug("后台刷新繁忙，跳过本轮 {}", tick.source().name()))
+            .flatMap(this::prefetch, MAX_CONCURRENT_SOURCES)
+            .subscribe();
+        log.debug("后台预取已启动");
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (running != null) {
+            running.dispose();
+            running = null;
+            log.debug("后台预取已停止");
+        }
+    }
+
+    /**
+     * 每轮等待前重新读取设置，修改间隔后从下一轮开始生效
+     */
+    private Flux<Tick> ticks(Source source) {
+        return settingConfigGetter.getAdvancedConfig()
+            .defaultIfEmpty(new AdvancedConfig())
+            .map(config -> new Tick(source, intervalOf(source, config), idleWindowOf(config)))
+            .onErrorResume(e -> Mono.just(new Tick(source, Duration.ofSeconds(source.defaultSeconds()),
+                Duration.ofMinutes(Constants.Prefetch.IDLE_MINUTES))))
+            .delayUntil(tick -> Mono.delay(tick.enabled() ? withJitter(tick.interval()) : DISABLED_RECHECK))
+            .repeat()
+            .filter(Tick::enabled);
+    }
+
+    private Mono<Void> prefetch(Tick tick) {
+        // 提前量包含抖动上限，保证下一轮到来前不会有条目过期
+        Duration lead = tick.interval().plusMillis((long) (tick.interval().toMillis() * JITTER));
+        return tick.source().prefetcher().prefetch(tick.idleWindow(), lead, MAX_CONCURRENT_ENTRIES)
+            .onErrorResume(e -> {
+                log.debug("后台刷新 {} 失败: {}", tick.source().name(), e.getMessage());
+                return Mono.empty();
+            });
+    }
+
+    /**
+     * 未设置时使用默认值，设置为 0 表示关闭
+     */
+    private static Duration intervalOf(Source source, AdvancedConfig config) {
+        Integer seconds = source.setting().apply(config);
+        if (seconds == null) {
+            return Duration.ofSeconds(source.defaultSeconds());
+        }
+        return seconds > 0 ? Duration.ofSeconds(seconds) : Duration.ZERO;
+    }
+
+    private static Duration idleWindowOf(AdvancedConfig config) {
+        return Duration.ofMinutes(ConfigUtils.positiveOrDefault(config.getPrefetchIdleMinutes(),
+            Constants.Prefetch.IDLE_MINUTES));
+    }
+
+    private static Duration withJitter(Duration interval) {
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        return Duration.ofMillis((long) (interval.toMillis() * factor));
+    }
+
+    @FunctionalInterface
+    private interface Prefetcher {
+        Mono<Void> prefetch(Duration activeWithin, Duration lead, int concurrency);
+    }
+
+    private record Source(String name, Function<AdvancedConfig, Integer> setting, int defaultSeconds,
+                          Prefetcher prefetcher) {}
+
+    private record Tick(Source source, Duration interval, Duration idleWindow) {
+        boolean enabled() {
+            return !interval.isZero();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.xhhao.dataStatistics.service.impl;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+
+import com.xhhao.dataStatistics.common.ApiResponse;
+import com.xhhao.dataStatistics.service.RealtimeStreamService;
+import com.xhhao.dataStatistics.service.UmamiService;
+import com.xhhao.dataStatistics.service.UptimeKumaService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 实时数据推送
+ * <p>服务端按固定间隔拉取 Umami 实时数据与 Uptime Kuma 状态，通过共享的 Flux 广播给所有订阅者。
+ * 每次拉取都等待缓存刷新完成，不推送过期的旧值。没有订阅者时停止拉取。</p>
+ *
+ * @since 1.0.6
+ */
+@Slf4j
+@Component
+public class RealtimeStreamServiceImpl implements RealtimeStreamService {
+
+    private static final Duration REALTIME_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration UPTIME_INTERVAL = Duration.ofSeconds(60);
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(25);
+
+    /**
+     * 最后一个订阅者离开后保留上游拉取的时间，避免页面跳转时反复启停
+     */
+    private static final Duration IDLE_GRACE_PERIOD = Duration.ofSeconds(30);
+
+    private final Flux<ServerSentEvent<Object>> realtimeEvents;
+    private final Flux<ServerSentEvent<Object>> uptimeEvents;
+
+    public RealtimeStreamServiceImpl(UmamiService umamiService, UptimeKumaService uptimeKumaService) {
+        this.realtimeEvents = poll("realtime", REALTIME_INTERVAL, umamiService::getFreshRealtimeData);
+        this.uptimeEvents = poll("uptime", UPTIME_INTERVAL, uptimeKumaService::getFreshStatusPage);
+    }
+
+    @Override
+    public Flux<ServerSentEvent<Object>> subscribe() {
+        Flux<ServerSentEvent<Object>> heartbeat = Flux.interval(HEARTBEAT_INTERVAL)
+            .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+        return Flux.merge(realtimeEvents, uptimeEvents, heartbeat);
+    }
+
+    /**
+     * 每种数据一个共享的拉取流，缓存最新一次结果供新订阅者立即获取
+     * <p>拉取失败时推送 {event}-error 事件，数据为 {@link ApiResponse} 错误响应，前端据此显示加载失败。
+     * 不使用 error 作为事件名，避免与 EventSource 的连接错误事件混淆。</p>
+     */
+    private Flux<ServerSentEvent<Object>> poll(String event, Duration interval, Supplier<Mono<?>> fetcher) {
+        return Flux.interval(Duration.ZERO, interval)
+            .onBackpressureDrop()
+            .concatMap(tick -> fetcher.get()
+                .map(data -> ServerSentEvent.builder((Object) data).event(event).build())
+                .onErrorResume(e -> {
+                    log.debug("推送 {} 数据失败: {}", event, e.getMessage());
+                    return Mono.just(ServerSentEvent.builder((Object) ApiResponse.error("获取数据失败", e.getMessage()))
+                        .event(event + "-error")
+                        .build());
+                }))
+            .replay(1)
+            .refCount(1, IDLE_GRACE_PERIOD);
+    }
+}
@@ -1,37 +1,100 @@
 package com.xhhao.dataStatistics.service.impl;
 
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.xhhao.dataStatistics.common.SettingsChangedEvent;
 import com.xhhao.dataStatistics.service.SettingConfigGetter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
+import run.halo.app.plugin.PluginConfigUpdatedEvent;
 import run.halo.app.plugin.ReactiveSettingFetcher;
 
+/**
+ * 设置读取
+ * <p>每个分组读取一次后缓存为快照，插件配置变更时丢弃快照并发布 {@link SettingsChangedEvent}。
+ * 快照另有较长的有效期，作为漏掉变更事件时的兜底。</p>
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class SettingConfigGetterImpl implements SettingConfigGetter {
+    private static final Duration SNAPSHOT_MAX_AGE = Duration.ofMinutes(10);
+
     private final ReactiveSettingFetcher settingFetcher;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, Mono<?>> snapshots = new ConcurrentHashMap<>();
 
     @Override
     public Mono<BasicsConfig> getBasicsConfig() {
-        return settingFetcher.fetch(BasicsConfig.GROUP, BasicsConfig.class)
-            .defaultIfEmpty(new BasicsConfig());
+        return fetch(BasicsConfig.GROUP, BasicsConfig.class, BasicsConfig::new);
     }
 
     @Override
     public Mono<UmamiConfig> getUmamiConfig() {
-        return settingFetcher.fetch(UmamiConfig.GROUP, UmamiConfig.class)
-            .defaultIfEmpty(new UmamiConfig());
+        return fetch(UmamiConfig.GROUP, UmamiConfig.class, UmamiConfig::new);
     }
 
     @Override
     public Mono<UptimeConfig> getUptimeKumaConfig() {
-        return settingFetcher.fetch(UptimeConfig.GROUP, UptimeConfig.class)
-            .defaultIfEmpty(new UptimeConfig());
+        return fetch(UptimeConfig.GROUP, UptimeConfig.class, UptimeConfig::new);
     }
 
     @Override
     public Mono<GithubConfig> getGithubConfig() {
-        return settingFetcher.fetch(GithubConfig.GROUP, GithubConfig.class)
-            .defaultIfEmpty(new GithubConfig());
+        return fetch(GithubConfig.GROUP, GithubConfig.class, GithubConfig::new);
+    }
+
+    @Override
+    public Mono<AdvancedConfig> getAdvancedConfig() {
+        return fetch(AdvancedConfig.GROUP, AdvancedConfig.class, AdvancedConfig::new);
+    }
+
+    @EventListener(PluginConfigUpdatedEvent.class)
+    public void onPluginConfigUpdated(PluginConfigUpdatedEvent event) {
+        Set<String> groups = changedGroups(event.getOldConfig(), event.getNewConfig());
+        if (groups.isEmpty()) {
+            return;
+        }
+        groups.forEach(snapshots::remove);
+        log.debug("插件设置已变更: {}", groups);
+        eventPublisher.publishEvent(new SettingsChangedEvent(this, groups));
+    }
+
+    /**
+     * 读取设置分组快照，读取失败时不缓存
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> fetch(String group, Class<T> type, Supplier<T> defaultValue) {
+        return (Mono<T>) snapshots.computeIfAbsent(group, key -> settingFetcher.fetch(group, type)
+            .defaultIfEmpty(defaultValue.get())
+            .cache(value -> SNAPSHOT_MAX_AGE, error -> Duration.ZERO, () -> Duration.ZERO));
+    }
+
+    /**
+     * 比较新旧配置得到变化的分组，无法比较时视为全部分组都已变化
+     */
+    private Set<String> changedGroups(Map<String, JsonNode> oldConfig, Map<String, JsonNode> newConfig) {
+        if (oldConfig == null || newConfig == null) {
+            Set<String> groups = new HashSet<>(snapshots.keySet());
+            groups.addAll(Set.of(BasicsConfig.GROUP, UmamiConfig.GROUP, UptimeConfig.GROUP,
+                GithubConfig.GROUP, AdvancedConfig.GROUP));
+            return groups;
+        }
+        Set<String> groups = new HashSet<>(oldConfig.keySet());
+        groups.addAll(newConfig.keySet());
+        groups.removeIf(group -> Objects.equals(oldConfig.get(group), newConfig.get(group)));
+        return groups;
     }
 }
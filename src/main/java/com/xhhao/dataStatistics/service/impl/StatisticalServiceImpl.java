@@ -1,197 +1,153 @@
 package com.xhhao.dataStatistics.service.impl;
 
-import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
-
 import java.time.Duration;
-import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xhhao.dataStatistics.aggregate.ChartAggregateStore;
+import com.xhhao.dataStatistics.aggregate.ChartSnapshotRepository;
+import com.xhhao.dataStatistics.aggregate.Granularity;
+import com.xhhao.dataStatistics.common.ConfigUtils;
 import com.xhhao.dataStatistics.common.Constants;
+import com.xhhao.dataStatistics.common.RefreshingCache;
+import com.xhhao.dataStatistics.common.SerializedPayload;
+import com.xhhao.dataStatistics.common.SettingsChangedEvent;
+import com.xhhao.dataStatistics.service.SettingConfigGetter;
 import com.xhhao.dataStatistics.service.StatisticalService;
 import com.xhhao.dataStatistics.vo.PieChartVO;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
-import run.halo.app.core.extension.content.Category;
-import run.halo.app.core.extension.content.Comment;
-import run.halo.app.core.extension.content.Post;
-import run.halo.app.core.extension.content.Tag;
-import run.halo.app.extension.ListOptions;
-import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.app.extension.ListResult;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class StatisticalServiceImpl implements StatisticalService {
-    
-    private final ReactiveExtensionClient client;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+public class StatisticalServiceImpl implements StatisticalService, MeterBinder {
+
+    private static final String CHART_CACHE_KEY = "chart";
+
+    private final ChartAggregateStore aggregateStore;
+    private final ChartSnapshotRepository snapshotRepository;
+    private final SettingConfigGetter settingConfigGetter;
+
+    /**
+     * 缓存的图表数据：并发请求共享同一次刷新，过期后先返回旧数据再后台刷新，失败时退避
+     */
+    private final RefreshingCache<String, PieChartVO> chartCache = new RefreshingCache<>("chart-data");
 
     /**
-     * 缓存的图表数据
+     * 最近一次写入快照的数据，聚合数据未变化时快照对象不变，据此跳过重复写盘
      */
-    private volatile Mono<PieChartVO> cachedChartData;
+    private volatile PieChartVO lastSaved;
+
+    /**
+     * 当前图表数据对应的序列化结果
+     */
+    private volatile ChartPayload chartPayload;
 
     @Override
     public Mono<PieChartVO> getPieChartVO() {
-        // 使用 Mono.cache() 实现缓存，避免重复计算
-        if (cachedChartData == null) {
-            cachedChartData = buildPieChartVO()
-                .cache(Duration.ofMinutes(Constants.Cache.CHART_DATA_CACHE_MINUTES));
-        }
-        return cachedChartData
-            .onErrorResume(e -> {
-                log.warn("缓存的图表数据失效，重新获取: {}", e.getMessage());
-                cachedChartData = null;
-                return buildPieChartVO();
+        return settingConfigGetter.getAdvancedConfig()
+            .flatMap(config -> {
+                aggregateStore.setCommentLimit(ConfigUtils.positiveOrDefault(config.getCommentTopN(),
+                    Constants.Cache.COMMENT_TOP_N));
+                int minutes = ConfigUtils.positiveOrDefault(config.getChartCacheMinutes(),
+                    Constants.Cache.CHART_DATA_CACHE_MINUTES);
+                return chartCache.get(CHART_CACHE_KEY, Duration.ofMinutes(minutes),
+                    () -> aggregateStore.getPieChartVO().doOnNext(this::saveInBackground));
             });
     }
 
-    /**
-     * 清除缓存（可用于强制刷新）
-     */
-    public void clearCache() {
-        cachedChartData = null;
+    @Override
+    public Mono<Void> prefetch(Duration activeWithin, Duration lead, int concurrency) {
+        return chartCache.refreshActive(activeWithin, lead, concurrency);
     }
 
-    private Mono<PieChartVO> buildPieChartVO() {
-        PieChartVO pieChartVO = new PieChartVO();
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        chartCache.bindTo(registry);
+    }
 
-        Mono<List<PieChartVO.Tag>> tagsMono = client.listAll(Tag.class, new ListOptions(),
-                Sort.by(Sort.Order.desc("metadata.creationTimestamp")))
-            .map(tag -> {
-                PieChartVO.Tag tagVO = new PieChartVO.Tag();
-                tagVO.setName(tag.getSpec().getDisplayName());
-                tagVO.setCount(defaultIfNull(tag.getStatus().getVisiblePostCount(), 0));
-                return tagVO;
-            })
-            .collectList();
-
-        Mono<List<PieChartVO.Category>> categoriesMono = client.listAll(Category.class, new ListOptions(),
-                Sort.by(Sort.Order.desc("metadata.creationTimestamp")))
-            .map(category -> {
-                PieChartVO.Category categoryVO = new PieChartVO.Category();
-                categoryVO.setName(category.getSpec().getDisplayName());
-                categoryVO.setTotal(defaultIfNull(category.getStatus().getVisiblePostCount(), 0));
-                return categoryVO;
-            })
-            .collectList();
-
-        Mono<List<PieChartVO.Article>> articlesMono = client.listAll(Post.class, new ListOptions(),
-                Sort.by(Sort.Order.desc("metadata.creationTimestamp")))
-            .filter(post -> post.getSpec().getPublishTime() != null)
-            .collectList()
-            .map(this::buildArticleList);
-
-        Mono<List<PieChartVO.Comment>> commentsMono = client.listAll(Comment.class, new ListOptions(),
-                Sort.by(Sort.Order.desc("metadata.creationTimestamp")))
-            .collectList()
-            .map(this::buildCommentList);
-
-        Mono<List<PieChartVO.Top10Article>> top10ArticlesMono = client.listAll(Post.class, new ListOptions(),
-                Sort.by(Sort.Order.desc("metadata.creationTimestamp")))
-            .filter(post -> post.getSpec().getPublishTime() != null)
-            .map(this::buildTop10Article)
-            .sort(Comparator.comparing(PieChartVO.Top10Article::getViews).reversed())
-            .take(10)
-            .collectList();
-
-        return Mono.zip(tagsMono, categoriesMono, articlesMono, commentsMono, top10ArticlesMono)
-            .map(tuple -> {
-                pieChartVO.setTags(tuple.getT1());
-                pieChartVO.setCategories(tuple.getT2());
-                pieChartVO.setArticles(tuple.getT3());
-                pieChartVO.setComments(tuple.getT4());
-                pieChartVO.setTop10Articles(tuple.getT5());
-                return pieChartVO;
-            });
+    @Override
+    public Mono<ListResult<PieChartVO.Comment>> getCommentLeaderboard(int page, int size) {
+        return aggregateStore.getCommentLeaderboard(page, size);
+    }
+
+    @Override
+    public Mono<List<PieChartVO.Article>> getArticleHistogram(LocalDate from, LocalDate to,
+        Granularity granularity) {
+        return aggregateStore.getArticleHistogram(from, to, granularity);
+    }
+
+    @Override
+    public Mono<SerializedPayload> getChartPayload() {
+        return getPieChartVO().map(data -> {
+            ChartPayload current = chartPayload;
+            if (current == null || current.source() != data) {
+                current = new ChartPayload(data, SerializedPayload.of(data));
+                chartPayload = current;
+            }
+            return current.payload();
+        });
     }
 
-    private List<PieChartVO.Article> buildArticleList(List<Post> posts) {
-        Map<String, Integer> postsByDate = posts.stream()
-            .collect(Collectors.groupingBy(post -> {
-                Instant publishTime = post.getSpec().getPublishTime();
-                if (publishTime != null) {
-                    return publishTime.atZone(Constants.DEFAULT_ZONE_ID)
-                        .toLocalDate().toString();
+    @Override
+    public Mono<Void> restoreSnapshot() {
+        return snapshotRepository.load()
+            .doOnNext(data -> {
+                if (chartCache.getIfPresent(CHART_CACHE_KEY) == null) {
+                    chartCache.put(CHART_CACHE_KEY, data);
+                    chartCache.invalidate(CHART_CACHE_KEY);
+                    lastSaved = data;
+                    log.info("已从磁盘快照恢复图表数据");
                 }
-                return post.getMetadata().getCreationTimestamp()
-                    .atZone(Constants.DEFAULT_ZONE_ID)
-                    .toLocalDate().toString();
-            }, Collectors.collectingAndThen(Collectors.counting(), Long::intValue)));
-
-        LocalDate today = LocalDate.now(Constants.DEFAULT_ZONE_ID);
-        LocalDate startDate = today.minusYears(1);
-
-        return Stream.iterate(startDate, date -> date.plusDays(1))
-            .limit(java.time.temporal.ChronoUnit.DAYS.between(startDate, today.plusDays(1)))
-            .map(date -> {
-                String dateStr = date.toString();
-                PieChartVO.Article articleVO = new PieChartVO.Article();
-                articleVO.setName(dateStr);
-                articleVO.setDate(date.atStartOfDay(Constants.DEFAULT_ZONE_ID).toLocalDateTime());
-                articleVO.setTotal(postsByDate.getOrDefault(dateStr, 0));
-                return articleVO;
             })
-            .sorted(Comparator.comparing(PieChartVO.Article::getDate).reversed())
-            .collect(Collectors.toList());
+            .then();
     }
 
-    private List<PieChartVO.Comment> buildCommentList(List<Comment> comments) {
-        Map<String, List<Comment>> commentsByUser = comments.stream()
-            .filter(comment -> comment.getSpec().getOwner() != null)
-            .collect(Collectors.groupingBy(comment -> {
-                String name = comment.getSpec().getOwner().getName();
-                return name != null ? name : "unknown";
-            }));
-
-        return commentsByUser.entrySet().stream()
-            .map(entry -> {
-                Comment firstComment = entry.getValue().getFirst();
-                PieChartVO.Comment commentVO = new PieChartVO.Comment();
-                commentVO.setName(firstComment.getSpec().getOwner().getName());
-                commentVO.setEmail(entry.getKey());
-                commentVO.setUsername(firstComment.getSpec().getOwner().getDisplayName());
-                commentVO.setCount(entry.getValue().size());
-                return commentVO;
-            })
-            .sorted(Comparator.comparing(PieChartVO.Comment::getCount).reversed())
-            .collect(Collectors.toList());
+    @Override
+    public Mono<Void> saveSnapshot() {
+        PieChartVO current = chartCache.getIfPresent(CHART_CACHE_KEY);
+        if (current == null || current == lastSaved) {
+            return Mono.empty();
+        }
+        return snapshotRepository.save(current)
+            .doOnSuccess(v -> lastSaved = current);
     }
 
-    private PieChartVO.Top10Article buildTop10Article(Post post) {
-        PieChartVO.Top10Article top10Article = new PieChartVO.Top10Article();
-        top10Article.setName(post.getSpec().getTitle());
-        
-        int visits = 0;
-        Map<String, String> annotations = post.getMetadata().getAnnotations();
-        if (annotations != null) {
-            String statsJson = annotations.get("content.halo.run/stats");
-            if (statsJson != null && !statsJson.isEmpty()) {
-                try {
-                    JsonNode statsNode = objectMapper.readTree(statsJson);
-                    if (statsNode.has("visit")) {
-                        visits = statsNode.get("visit").asInt();
-                    }
-                } catch (JsonProcessingException e) {
-                    log.warn("解析文章统计信息失败: {}", e.getMessage());
-                }
-            }
+    private void saveInBackground(PieChartVO data) {
+        if (data == lastSaved) {
+            return;
         }
-        top10Article.setViews(visits);
-        return top10Article;
+        lastSaved = data;
+        snapshotRepository.save(data).subscribe();
     }
 
+    /**
+     * 清除缓存（可用于强制刷新）
+     */
+    public void clearCache() {
+        aggregateStore.invalidate();
+        chartCache.invalidate(CHART_CACHE_KEY);
+    }
+
+    /**
+     * 高级设置变更后使图表缓存过期，下次读取时按新的缓存时长与排行条数重新生成
+     */
+    @EventListener(SettingsChangedEvent.class)
+    public void onSettingsChanged(SettingsChangedEvent event) {
+        if (event.affects(SettingConfigGetter.AdvancedConfig.GROUP)) {
+            chartCache.invalidate(CHART_CACHE_KEY);
+        }
+    }
+
+    private record ChartPayload(PieChartVO source, SerializedPayload payload) {}
+
 }
@@ -1,108 +1,300 @@
 package com.xhhao.dataStatistics.service.impl;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
-import org.springframework.http.HttpHeaders;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.xhhao.dataStatistics.common.Constants;
+import com.xhhao.dataStatistics.common.RefreshingCache;
+import com.xhhao.dataStatistics.common.RetryBudget;
+import com.xhhao.dataStatistics.common.SettingsChangedEvent;
+import com.xhhao.dataStatistics.common.UpstreamGuard;
+import com.xhhao.dataStatistics.config.UpstreamHttpClients;
 import com.xhhao.dataStatistics.service.SettingConfigGetter;
 import com.xhhao.dataStatistics.service.UmamiService;
 
-import cn.hutool.cache.CacheUtil;
-import cn.hutool.cache.impl.TimedCache;
 import cn.hutool.core.util.StrUtil;
-import lombok.RequiredArgsConstructor;
+import cn.hutool.jwt.JWT;
+import cn.hutool.jwt.RegisteredPayload;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
+import reactor.util.context.Context;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
-public class UmamiServiceImpl implements UmamiService {
+public class UmamiServiceImpl implements UmamiService, MeterBinder {
 
     private final SettingConfigGetter settingConfigGetter;
     private final WebClient.Builder webClientBuilder;
+    private final UpstreamGuard upstreamGuard;
+
+    /**
+     * 登录单独熔断与计时：token 在进入 API 保护之前获取，慢登录不会计入 API 请求的自适应超时与失败次数
+     */
+    private final UpstreamGuard loginGuard;
 
     private static final long TOKEN_CACHE_EXPIRE_MS = Duration.ofHours(Constants.Cache.UMAMI_TOKEN_CACHE_HOURS).toMillis();
-    private final TimedCache<String, String> tokenCache = CacheUtil.newTimedCache(TOKEN_CACHE_EXPIRE_MS);
+
+    /**
+     * 距过期不足该时长时提前刷新 token
+     */
+    private static final long TOKEN_REFRESH_MARGIN_MS = Duration.ofMinutes(10).toMillis();
+
+    /**
+     * JWT 剩余有效期低于该时长（已过期或与上游时钟偏差较大）时按默认缓存时长计算，避免每次请求都重新登录
+     */
+    private static final long MIN_TOKEN_LIFETIME_MS = Duration.ofMinutes(1).toMillis();
+
+    private final Map<String, CachedToken> tokenCache = new ConcurrentHashMap<>();
 
     private static final String CACHE_KEY_PREFIX = "umami_token_";
 
     /**
-     * 通用重试策略
+     * Reactor Context 中保存当前请求 token 的 key，由过滤器读取
+     */
+    private static final String TOKEN_CONTEXT_KEY = UmamiServiceImpl.class.getName() + ".token";
+
+    private final Map<String, WebClient> apiClients = new ConcurrentHashMap<>();
+    private final Map<String, WebClient> loginClients = new ConcurrentHashMap<>();
+    private final Map<String, Mono<String>> pendingLogins = new ConcurrentHashMap<>();
+
+    private static final Duration REALTIME_CACHE_TTL = Duration.ofSeconds(15);
+    private static final Duration WEBSITE_ID_CACHE_TTL = Duration.ofHours(1);
+
+    /**
+     * 自动解析的网站 ID 缓存，避免每次请求都拉取完整网站列表
+     */
+    private final RefreshingCache<String, String> websiteIdCache = new RefreshingCache<>("umami-website-id", 16);
+
+    /**
+     * 上游响应缓存：同一 key 的并发请求合并为一次，过期或上游失败时先返回旧数据
+     */
+    private final RefreshingCache<ResponseKey, JsonNode> responseCache = new RefreshingCache<>("umami-response", 64);
+
+    private volatile MeterRegistry meterRegistry;
+
+    public UmamiServiceImpl(SettingConfigGetter settingConfigGetter, UpstreamHttpClients upstreamHttpClients,
+        RetryBudget retryBudget) {
+        this.settingConfigGetter = settingConfigGetter;
+        this.webClientBuilder = upstreamHttpClients.builder(UpstreamHttpClients.UMAMI);
+        this.upstreamGuard = new UpstreamGuard("umami", retryBudget);
+        this.loginGuard = new UpstreamGuard("umami-login", retryBudget);
+    }
+
+    /**
+     * Umami 设置变更后丢弃 token、网站 ID、响应缓存与客户端，下次请求按新设置重新建立
+     */
+    @EventListener(SettingsChangedEvent.class)
+    public void onSettingsChanged(SettingsChangedEvent event) {
+        if (!event.affects(SettingConfigGetter.UmamiConfig.GROUP)) {
+            return;
+        }
+        tokenCache.clear();
+        websiteIdCache.evictAll();
+        responseCache.evictAll();
+        apiClients.clear();
+        loginClients.clear();
+        log.debug("Umami 设置已变更，已清除相关缓存");
+    }
+
+    /**
+     * 网站 ID 与统计数据并行刷新，统计数据的加载函数已绑定网站 ID，两者互不依赖
+     */
+    @Override
+    public Mono<Void> prefetch(Duration activeWithin, Duration lead, int concurrency) {
+        return Mono.when(websiteIdCache.refreshActive(activeWithin, lead, concurrency),
+            responseCache.refreshActive(activeWithin, lead, concurrency));
+    }
+
+    /**
+     * 绑定缓存、上游保护指标；token 刷新次数按触发原因记录（data.statistics.umami.token.refreshes）
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        websiteIdCache.bindTo(registry);
+        responseCache.bindTo(registry);
+        upstreamGuard.bindTo(registry);
+        loginGuard.bindTo(registry);
+        meterRegistry = registry;
+    }
+
+    /**
+     * 通过熔断、自适应超时与重试预算执行请求
      */
     private <T> Mono<T> withRetry(Mono<T> mono, String operationName) {
-        return mono.retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
-            .maxBackoff(Duration.ofSeconds(5))
-            .filter(throwable -> throwable instanceof WebClientRequestException)
-            .doBeforeRetry(signal -> log.warn("{} 请求失败，正在重试 ({}/3): {}",
-                operationName, signal.totalRetries() + 1, signal.failure().getMessage())));
+        return upstreamGuard.execute(mono, operationName);
     }
 
     /**
      * 通用 API 请求方法
+     * <p>先在 API 保护之外获取 token，再在保护下发起请求；返回 401 时刷新一次 token 并重新请求，
+     * 登录耗时不计入 API 请求的超时。</p>
      */
     private <T> Mono<T> executeApiRequest(
             Function<WebClient, Mono<T>> requestBuilder,
             String operationName) {
-        return getToken()
-            .flatMap(token -> getBaseUrl()
-                .flatMap(baseUrl -> {
-                    if (StrUtil.isBlank(baseUrl)) {
-                        return Mono.error(new IllegalStateException("Umami 站点地址未配置"));
-                    }
-                    WebClient client = webClientBuilder
-                        .baseUrl(baseUrl)
-                        .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
-                        .build();
-                    return withRetry(requestBuilder.apply(client), operationName);
-                }))
+        return getBaseUrl()
+            .flatMap(baseUrl -> {
+                if (StrUtil.isBlank(baseUrl)) {
+                    return Mono.error(new IllegalStateException("Umami 站点地址未配置"));
+                }
+                WebClient client = apiClient(baseUrl);
+                return getToken()
+                    .flatMap(token -> withToken(withRetry(requestBuilder.apply(client), operationName), token)
+                        .onErrorResume(WebClientResponseException.Unauthorized.class, e -> {
+                            log.debug("Umami token 已失效，重新登录后重试");
+                            return refreshToken(token).flatMap(newToken ->
+                                withToken(withRetry(requestBuilder.apply(client), operationName), newToken));
+                        }));
+            })
             .doOnError(error -> log.debug("{} 失败: {}", operationName, error.getMessage()));
     }
 
+    private static <T> Mono<T> withToken(Mono<T> request, String token) {
+        return request.contextWrite(Context.of(TOKEN_CONTEXT_KEY, token));
+    }
+
+    /**
+     * 按站点地址复用的 API 客户端，由过滤器统一注入 token
+     */
+    private WebClient apiClient(String baseUrl) {
+        return apiClients.computeIfAbsent(baseUrl, url -> webClientBuilder.clone()
+            .baseUrl(url)
+            .filter(bearerTokenFilter())
+            .build());
+    }
+
+    /**
+     * 按站点地址复用的登录客户端，不携带 token
+     */
+    private WebClient loginClient(String baseUrl) {
+        return loginClients.computeIfAbsent(baseUrl, url -> webClientBuilder.clone()
+            .baseUrl(url)
+            .build());
+    }
+
+    /**
+     * 为请求附加 {@link #executeApiRequest} 预先获取的 Bearer token，过滤器内不再登录
+     */
+    private static ExchangeFilterFunction bearerTokenFilter() {
+        return (request, next) -> Mono.deferContextual(context -> next.exchange(
+            context.<String>getOrEmpty(TOKEN_CONTEXT_KEY)
+                .map(token -> withBearerToken(request, token))
+                .orElse(request)));
+    }
+
+    private static ClientRequest withBearerToken(ClientRequest request, String token) {
+        return ClientRequest.from(request)
+            .headers(headers -> headers.setBearerAuth(token))
+            .build();
+    }
+
     @Override
     public Mono<String> getToken() {
-        return settingConfigGetter.getUmamiConfig()
+        return getLoginConfig()
             .flatMap(config -> {
-                if (StrUtil.isBlank(config.getSiteUrl()) || StrUtil.isBlank(config.getUserName()) 
-                    || StrUtil.isBlank(config.getUserPassWord())) {
-                    return Mono.error(new IllegalStateException("Umami 配置不完整"));
+                String cacheKey = tokenCacheKey(config);
+                CachedToken cached = tokenCache.get(cacheKey);
+                long now = System.currentTimeMillis();
+                if (cached != null && now < cached.expiresAt()) {
+                    if (now >= cached.refreshAt()) {
+                        // 即将过期：继续使用当前 token，同时在后台提前刷新
+                        login(cacheKey, config, "proactive")
+                            .subscribe(null, e -> log.debug("提前刷新 Umami token 失败: {}", e.getMessage()));
+                    }
+                    return Mono.just(cached.token());
                 }
 
-                String cacheKey = CACHE_KEY_PREFIX + normalizeBaseUrl(config.getSiteUrl()) + "_" + config.getUserName();
-                String cachedToken = tokenCache.get(cacheKey, false);
-                if (cachedToken != null) {
-                    return Mono.just(cachedToken);
+                log.debug("缓存未命中，请求新的 Umami token");
+                return login(cacheKey, config, "missing");
+            });
+    }
+
+    /**
+     * 丢弃被拒绝的 token 并重新登录；若其他请求已完成刷新则直接使用新 token
+     */
+    private Mono<String> refreshToken(String rejectedToken) {
+        return getLoginConfig()
+            .flatMap(config -> {
+                String cacheKey = tokenCacheKey(config);
+                CachedToken cached = tokenCache.get(cacheKey);
+                if (cached != null && !cached.token().equals(rejectedToken)) {
+                    return Mono.just(cached.token());
                 }
+                tokenCache.remove(cacheKey, cached);
+                return login(cacheKey, config, "unauthorized");
+            });
+    }
 
-                log.debug("缓存未命中，请求新的 Umami token");
-                return requestToken(config)
-                    .map(response -> {
-                        tokenCache.put(cacheKey, response.token());
-                        return response.token();
-                    });
+    /**
+     * 同一账号同一时刻只发起一次登录，并发请求与后台刷新共享结果
+     *
+     * @param reason 触发原因：missing（无可用 token）、proactive（提前刷新）、unauthorized（被上游拒绝）
+     */
+    private Mono<String> login(String cacheKey, SettingConfigGetter.UmamiConfig config, String reason) {
+        return pendingLogins.computeIfAbsent(cacheKey, key -> {
+            countTokenRefresh(reason);
+            return requestToken(config)
+                .map(response -> {
+                    tokenCache.put(key, CachedToken.of(response.token()));
+                    return response.token();
+                })
+                .doFinally(signal -> pendingLogins.remove(key))
+                .cache();
+        });
+    }
+
+    private void countTokenRefresh(String reason) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            Counter.builder("data.statistics.umami.token.refreshes")
+                .description("Umami token 登录次数")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+        }
+    }
+
+    private Mono<SettingConfigGetter.UmamiConfig> getLoginConfig() {
+        return settingConfigGetter.getUmamiConfig()
+            .flatMap(config -> {
+                if (StrUtil.isBlank(config.getSiteUrl()) || StrUtil.isBlank(config.getUserName())
+                    || StrUtil.isBlank(config.getUserPassWord())) {
+                    return Mono.error(new IllegalStateException("Umami 配置不完整"));
+                }
+                return Mono.just(config);
             });
     }
 
+    private String tokenCacheKey(SettingConfigGetter.UmamiConfig config) {
+        return CACHE_KEY_PREFIX + normalizeBaseUrl(config.getSiteUrl()) + "_" + config.getUserName();
+    }
+
     private Mono<LoginResponse> requestToken(SettingConfigGetter.UmamiConfig config) {
         String baseUrl = normalizeBaseUrl(config.getSiteUrl());
         if (baseUrl.isEmpty()) {
             return Mono.error(new IllegalStateException("Umami 站点地址为空"));
         }
         
-        WebClient client = webClientBuilder.baseUrl(baseUrl).build();
         LoginRequest request = new LoginRequest(config.getUserName(), config.getUserPassWord());
 
-        return withRetry(
-            client.post()
+        return loginGuard.execute(
+            loginClient(baseUrl).post()
                 .uri("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(request)
@@ -118,6 +310,35 @@ public class UmamiServiceImpl implements UmamiService {
         return StrUtil.isBlank(siteUrl) ? "" : StrUtil.removeSuffix(siteUrl.trim(), "/");
     }
 
+    /**
+     * 缓存的 token，过期时间优先取 JWT 的 exp，无法解析或剩余有效期过短时按默认缓存时长计算
+     */
+    private record CachedToken(String token, long expiresAt, long refreshAt) {
+
+        static CachedToken of(String token) {
+            long now = System.currentTimeMillis();
+            long expiresAt = now + TOKEN_CACHE_EXPIRE_MS;
+            try {
+                Object exp = JWT.of(token).getPayload(RegisteredPayload.EXPIRES_AT);
+                if (exp instanceof Number seconds) {
+                    long jwtExpiresAt = seconds.longValue() * 1000;
+                    if (jwtExpiresAt - now >= MIN_TOKEN_LIFETIME_MS) {
+                        expiresAt = jwtExpiresAt;
+                    } else {
+                        log.warn("Umami token 的过期时间 {} 早于当前时间或即将到期，可能存在时钟偏差，按默认时长缓存",
+                            Instant.ofEpochMilli(jwtExpiresAt));
+                    }
+                }
+            } catch (Exception e) {
+                log.debug("Umami token 不是标准 JWT，按默认时长缓存: {}", e.getMessage());
+            }
+            // 刷新时间点取过期前的固定余量，且不早于有效期的一半
+            long lifetime = expiresAt - now;
+            long refreshAt = expiresAt - Math.min(TOKEN_REFRESH_MARGIN_MS, lifetime / 2);
+            return new CachedToken(token, expiresAt, refreshAt);
+        }
+    }
+
     private record LoginRequest(String username, String password) {}
     private record LoginResponse(String token, User user) {}
     private record User(String id, String username, String role, String createdAt, boolean isAdmin) {}
@@ -137,29 +358,40 @@ public class UmamiServiceImpl implements UmamiService {
     @Override
     public Mono<JsonNode> getRealtimeData(String websiteId) {
         return resolveWebsiteId(websiteId)
-            .flatMap(id -> executeApiRequest(
-                client -> client.get()
-                    .uri(uriBuilder -> uriBuilder
-                        .path("/api/realtime/{websiteId}")
-                        .queryParam("timezone", Constants.DEFAULT_TIMEZONE)
-                        .build(id))
-                    .retrieve()
-                    .bodyToMono(JsonNode.class),
-                "获取实时数据"
-            ));
+            .flatMap(id -> responseCache.get(new ResponseKey(id, "realtime", null), REALTIME_CACHE_TTL,
+                () -> fetchRealtimeData(id)));
+    }
+
+    @Override
+    public Mono<JsonNode> getFreshRealtimeData() {
+        return resolveWebsiteId(null)
+            .flatMap(id -> responseCache.getFresh(new ResponseKey(id, "realtime", null), REALTIME_CACHE_TTL,
+                () -> fetchRealtimeData(id)));
+    }
+
+    private Mono<JsonNode> fetchRealtimeData(String websiteId) {
+        return executeApiRequest(
+            client -> client.get()
+                .uri(uriBuilder -> uriBuilder
+                    .path("/api/realtime/{websiteId}")
+                    .queryParam("timezone", Constants.DEFAULT_TIMEZONE)
+                    .build(websiteId))
+                .retrieve()
+                .bodyToMono(JsonNode.class),
+            "获取实时数据"
+        );
     }
 
     @Override
     public Mono<JsonNode> getVisitStatistics(String websiteId, String type) {
         return resolveWebsiteId(websiteId)
             .flatMap(id -> {
-                LocalDateTime now = LocalDateTime.now(Constants.DEFAULT_ZONE_ID);
                 var timeRange = switch (type.toLowerCase()) {
-                    case "daily" -> new TimeRange(now.minusDays(1), "day");
-                    case "weekly" -> new TimeRange(now.minusDays(7), "day");
-                    case "monthly" -> new TimeRange(now.minusDays(30), "day");
-                    case "quarterly" -> new TimeRange(now.minusDays(90), "month");
-                    case "yearly" -> new TimeRange(now.minusDays(365), "month");
+                    case "daily" -> new TimeRange(1, "day", Duration.ofMinutes(5));
+                    case "weekly" -> new TimeRange(7, "day", Duration.ofMinutes(15));
+                    case "monthly" -> new TimeRange(30, "day", Duration.ofMinutes(30));
+                    case "quarterly" -> new TimeRange(90, "month", Duration.ofHours(1));
+                    case "yearly" -> new TimeRange(365, "month", Duration.ofHours(1));
                     default -> null;
                 };
                 
@@ -167,18 +399,32 @@ public class UmamiServiceImpl implements UmamiService {
                     return Mono.error(new IllegalArgumentException("不支持的统计类型: " + type));
                 }
 
-                long startAt = timeRange.start.atZone(Constants.DEFAULT_ZONE_ID).toInstant().toEpochMilli();
-                long endAt = now.atZone(Constants.DEFAULT_ZONE_ID).toInstant().toEpochMilli();
-                
-                return fetchVisitStatistics(id, startAt, endAt, timeRange.unit);
+                var key = new ResponseKey(id, type.toLowerCase(), timeRange.unit());
+                return responseCache.get(key, timeRange.ttl(), () -> {
+                    // 时间窗口在实际请求时计算，保证刷新后的数据随时间滑动
+                    LocalDateTime now = LocalDateTime.now(Constants.DEFAULT_ZONE_ID);
+                    long startAt = now.minusDays(timeRange.days())
+                        .atZone(Constants.DEFAULT_ZONE_ID).toInstant().toEpochMilli();
+                    long endAt = now.atZone(Constants.DEFAULT_ZONE_ID).toInstant().toEpochMilli();
+                    return fetchVisitStatistics(id, startAt, endAt, timeRange.unit());
+                });
             });
     }
     
-    private record TimeRange(LocalDateTime start, String unit) {}
+    /**
+     * 统计时间范围：向前的天数、统计单位与缓存时间
+     */
+    private record TimeRange(int days, String unit, Duration ttl) {}
+
+    /**
+     * 响应缓存 key：网站 ID、数据类型与统计单位
+     */
+    private record ResponseKey(String websiteId, String type, String unit) {}
 
     @Override
     public Mono<JsonNode> getRealtimeVisitStatistics(String websiteId) {
-        return resolveWebsiteId(websiteId).flatMap(this::getRealtimeData);
+        // getRealtimeData 内部会解析网站 ID，这里不再重复解析
+        return getRealtimeData(websiteId);
     }
     
     private Mono<JsonNode> fetchVisitStatistics(String websiteId, long startAt, long endAt, String unit) {
@@ -198,24 +444,37 @@ public class UmamiServiceImpl implements UmamiService {
     }
 
 
+    /**
+     * 网站 ID 以设置或自动解析的结果为准；调用方传入的 ID 必须与之一致，
+     * 避免任意 ID 进入响应缓存并转发到 Umami
+     */
     private Mono<String> resolveWebsiteId(String websiteId) {
-        if (StrUtil.isNotBlank(websiteId)) {
-            return Mono.just(websiteId);
-        }
+        return resolveConfiguredWebsiteId()
+            .flatMap(id -> StrUtil.isBlank(websiteId) || id.equals(websiteId)
+                ? Mono.just(id)
+                : Mono.error(new IllegalArgumentException("网站 ID 与插件设置不一致")));
+    }
+
+    private Mono<String> resolveConfiguredWebsiteId() {
         return settingConfigGetter.getUmamiConfig()
             .flatMap(config -> {
                 if (StrUtil.isNotBlank(config.getWebsiteId())) {
                     return Mono.just(config.getWebsiteId());
                 }
-                return getWebsites()
+                // 未配置网站 ID 时缓存自动解析结果，站点地址或账号变化后 key 随之变化
+                String cacheKey = normalizeBaseUrl(config.getSiteUrl()) + "_" + config.getUserName();
+                return websiteIdCache.get(cacheKey, WEBSITE_ID_CACHE_TTL, () -> getWebsites()
                     .map(json -> {
                         if (json.isArray() && !json.isEmpty()) {
                             JsonNode first = json.get(0);
-                            return first.has("id") ? first.get("id").asText()
+                            String id = first.has("id") ? first.get("id").asText()
                                 : first.has("websiteId") ? first.get("websiteId").asText() : null;
+                            if (StrUtil.isNotBlank(id)) {
+                                return id;
+                            }
                         }
                         throw new IllegalStateException("未找到可用的网站");
-                    });
+                    }));
             });
     }
 
@@ -3,91 +3,254 @@ package com.xhhao.dataStatistics.service.impl;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.xhhao.dataStatistics.common.RefreshingCache;
+import com.xhhao.dataStatistics.common.RetryBudget;
+import com.xhhao.dataStatistics.common.SettingsChangedEvent;
+import com.xhhao.dataStatistics.common.UpstreamGuard;
+import com.xhhao.dataStatistics.config.UpstreamHttpClients;
 import com.xhhao.dataStatistics.service.SettingConfigGetter;
 import com.xhhao.dataStatistics.service.UptimeKumaService;
 
 import cn.hutool.core.text.StrFormatter;
+import cn.hutool.core.util.NumberUtil;
 import cn.hutool.core.util.StrUtil;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.retry.Retry;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class UptimeKumaServiceImpl implements UptimeKumaService {
+public class UptimeKumaServiceImpl implements UptimeKumaService, MeterBinder {
+
+    private static final Duration STATUS_CACHE_TTL = Duration.ofSeconds(60);
+
+    /**
+     * 同时拉取的状态页数量上限
+     */
+    private static final int MAX_CONCURRENT_PAGES = 4;
+
+    private static final int STATUS_DOWN = 0;
+    private static final int STATUS_UP = 1;
+    private static final int STATUS_PARTIAL = 2;
+
+    /**
+     * Uptime Kuma 心跳状态中的异常；等待中（2）与维护中（3）不算异常
+     */
+    private static final int HEARTBEAT_DOWN = 0;
 
     private final SettingConfigGetter settingConfigGetter;
     private final WebClient webClient;
+    private final UpstreamGuard upstreamGuard;
+
+    /**
+     * 单个状态页的缓存：过期后先返回旧数据并在后台刷新，上游失败时退避
+     */
+    private final RefreshingCache<String, StatusPage> pageCache = new RefreshingCache<>("uptime-status-page");
+
+    public UptimeKumaServiceImpl(SettingConfigGetter settingConfigGetter, UpstreamHttpClients upstreamHttpClients,
+        RetryBudget retryBudget) {
+        this.settingConfigGetter = settingConfigGetter;
+        this.webClient = upstreamHttpClients.builder(UpstreamHttpClients.UPTIME_KUMA).build();
+        this.upstreamGuard = new UpstreamGuard("uptime-kuma", retryBudget);
+    }
 
     @Override
     public Mono<UptimeStatus> getStatusPage() {
+        return getStatusPage(false);
+    }
+
+    @Override
+    public Mono<UptimeStatus> getFreshStatusPage() {
+        return getStatusPage(true);
+    }
+
+    private Mono<UptimeStatus> getStatusPage(boolean fresh) {
         return settingConfigGetter.getUptimeKumaConfig()
             .flatMap(config -> {
-                var statusPageUrl = StrUtil.trim(config.getUptimeUrl());
-                if (StrUtil.isBlank(statusPageUrl)) {
+                List<String> statusPageUrls = parseStatusPageUrls(config.getUptimeUrl());
+                if (statusPageUrls.isEmpty()) {
                     log.debug("Uptime Kuma 状态页 URL 未配置");
                     return Mono.error(new IllegalStateException("Uptime Kuma 状态页 URL 未配置，请在插件设置中配置状态页 URL"));
                 }
 
-                try {
-                    var apiUrl = buildHeartbeatApiUrl(statusPageUrl);
-                    return requestStatusData(apiUrl)
-                        .map(status -> new UptimeKumaService.UptimeStatus(status, statusPageUrl));
-                } catch (URISyntaxException e) {
-                    return Mono.error(new IllegalStateException("状态页 URL 不合法: " + e.getMessage(), e));
-                }
+                return Flux.fromIterable(statusPageUrls)
+                    .flatMapSequential(url -> fetchStatusPage(url, fresh), MAX_CONCURRENT_PAGES)
+                    .collectList()
+                    .flatMap(pages -> {
+                        if (pages.stream().allMatch(page -> page.error() != null)) {
+                            return Mono.error(new IllegalStateException(pages.get(0).error()));
+                        }
+                        Instant updatedAt = pages.stream().map(StatusPage::fetchedAt)
+                            .min(Instant::compareTo).orElseGet(Instant::now);
+                        return Mono.just(new UptimeStatus(aggregateStatus(pages), statusPageUrls.get(0),
+                            pages, updatedAt));
+                    });
             });
     }
 
-    private Mono<Integer> requestStatusData(String apiUrl) {
+    @Override
+    public Mono<Void> prefetch(Duration activeWithin, Duration lead, int concurrency) {
+        return pageCache.refreshActive(activeWithin, lead, concurrency);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        pageCache.bindTo(registry);
+        upstreamGuard.bindTo(registry);
+    }
+
+    @EventListener(SettingsChangedEvent.class)
+    public void onSettingsChanged(SettingsChangedEvent event) {
+        if (event.affects(SettingConfigGetter.UptimeConfig.GROUP)) {
+            pageCache.evictAll();
+        }
+    }
+
+    /**
+     * 从缓存读取单个状态页，没有可用数据时返回带错误信息的状态页，不影响其他状态页
+     *
+     * @param fresh 为 true 时缓存过期后等待刷新完成，不返回旧值
+     */
+    private Mono<StatusPage> fetchStatusPage(String url, boolean fresh) {
+        Mono<StatusPage> page = fresh
+            ? pageCache.getFresh(url, STATUS_CACHE_TTL, () -> requestStatusPage(url))
+            : pageCache.get(url, STATUS_CACHE_TTL, () -> requestStatusPage(url));
+        return page
+            .onErrorResume(e -> Mono.just(new StatusPage(url, null, STATUS_DOWN, List.of(), Instant.now(),
+                StrUtil.blankToDefault(e.getMessage(), "未知错误"))));
+    }
+
+    /**
+     * 状态页地址支持多个，以换行、逗号或空白分隔
+     */
+    private List<String> parseStatusPageUrls(String value) {
+        return Arrays.stream(StrUtil.nullToEmpty(value).split("[,\\s]+"))
+            .filter(StrUtil::isNotBlank)
+            .distinct()
+            .toList();
+    }
+
+    /**
+     * 同时请求状态页配置（监控项名称与分组）与心跳数据（状态、可用率、延迟），
+     * 配置获取失败时仍按心跳数据统计
+     */
+    private Mono<StatusPage> requestStatusPage(String statusPageUrl) {
+        StatusPageApi api;
+        try {
+            api = buildStatusPageApi(statusPageUrl);
+        } catch (URISyntaxException e) {
+            return Mono.error(new IllegalStateException("状态页 URL 不合法: " + e.getMessage(), e));
+        }
+        Mono<JsonNode> config = requestJson(api.configUrl())
+            .onErrorResume(e -> Mono.just(MissingNode.getInstance()));
+        return Mono.zip(config, requestJson(api.heartbeatUrl()))
+            .map(tuple -> parseStatusPage(statusPageUrl, tuple.getT1(), tuple.getT2()));
+    }
+
+    private Mono<JsonNode> requestJson(String apiUrl) {
         log.debug("请求 Uptime Kuma API: {}", apiUrl);
         return webClient
             .get()
             .uri(apiUrl)
             .retrieve()
             .bodyToMono(JsonNode.class)
-            .map(this::parseStatusData)
-            .retryWhen(Retry.backoff(3, Duration.ofSeconds(1))
-                .maxBackoff(Duration.ofSeconds(5))
-                .filter(throwable -> throwable instanceof WebClientRequestException)
-                .doBeforeRetry(signal -> log.warn("Uptime Kuma API 请求失败，正在重试 ({}/3): {}",
-                    signal.totalRetries() + 1, signal.failure().getMessage())))
+            .transform(request -> upstreamGuard.execute(request, "Uptime Kuma API"))
             .doOnError(error -> log.debug("调用 Uptime Kuma API 失败: {}", error.getMessage()));
     }
 
-    private Integer parseStatusData(JsonNode jsonNode) {
-        var uptimeList = jsonNode.get("uptimeList");
-        if (uptimeList == null || !uptimeList.isObject()) {
-            return 0;
-        }
+    private StatusPage parseStatusPage(String statusPageUrl, JsonNode config, JsonNode heartbeat) {
+        JsonNode heartbeatList = heartbeat.path("heartbeatList");
+        JsonNode uptimeList = heartbeat.path("uptimeList");
 
-        var counts = new int[2];
-        uptimeList.fieldNames().forEachRemaining(key -> {
-            var value = uptimeList.get(key).asDouble(0.0);
-            counts[1]++;
-            if (value != 0.0) {
-                counts[0]++;
+        List<Monitor> monitors = new ArrayList<>();
+        for (JsonNode group : config.path("publicGroupList")) {
+            String groupName = group.path("name").asText(null);
+            for (JsonNode monitor : group.path("monitorList")) {
+                monitors.add(parseMonitor(monitor.path("id").asLong(), monitor.path("name").asText(""),
+                    groupName, heartbeatList, uptimeList));
             }
-        });
+        }
+        if (monitors.isEmpty()) {
+            uptimeList.fieldNames().forEachRemaining(key -> {
+                if (key.endsWith("_24") && NumberUtil.isLong(StrUtil.removeSuffix(key, "_24"))) {
+                    long id = Long.parseLong(StrUtil.removeSuffix(key, "_24"));
+                    monitors.add(parseMonitor(id, "", null, heartbeatList, uptimeList));
+                }
+            });
+        }
+
+        String title = config.path("config").path("title").asText(null);
+        return new StatusPage(statusPageUrl, title, monitorsStatus(monitors), List.copyOf(monitors),
+            Instant.now(), null);
+    }
 
-        if (counts[0] == counts[1]) {
-            return 1;
+    private Monitor parseMonitor(long id, String name, String group, JsonNode heartbeatList,
+        JsonNode uptimeList) {
+        JsonNode beats = heartbeatList.path(String.valueOf(id));
+        JsonNode latest = beats.isArray() && !beats.isEmpty() ? beats.get(beats.size() - 1) : null;
+        JsonNode uptime = uptimeList.path(id + "_24");
+        return new Monitor(id, name, group,
+            latest == null || !latest.path("status").isNumber() ? null : latest.get("status").asInt(),
+            uptime.isNumber() ? uptime.asDouble() : null,
+            latest == null || !latest.path("ping").isNumber() ? null : latest.get("ping").asInt());
+    }
+
+    /**
+     * 有心跳的监控项以最近一次心跳是否为异常判断，计划维护与等待中的监控项不计为异常；
+     * 没有心跳时以 24 小时可用率是否大于 0 判断
+     */
+    private static boolean isAvailable(Monitor monitor) {
+        if (monitor.status() != null) {
+            return monitor.status() != HEARTBEAT_DOWN;
+        }
+        return monitor.uptime24h() != null && monitor.uptime24h() > 0;
+    }
+
+    private int monitorsStatus(List<Monitor> monitors) {
+        return combine((int) monitors.stream().filter(UptimeKumaServiceImpl::isAvailable).count(), monitors.size());
+    }
+
+    /**
+     * 汇总所有状态页的监控项，拉取失败的状态页计为一个异常项
+     */
+    private int aggregateStatus(List<StatusPage> pages) {
+        int up = 0;
+        int total = 0;
+        for (StatusPage page : pages) {
+            if (page.error() != null) {
+                total++;
+                continue;
+            }
+            up += (int) page.monitors().stream().filter(UptimeKumaServiceImpl::isAvailable).count();
+            total += page.monitors().size();
         }
-        if (counts[0] == 0) {
-            return 0;
+        return combine(up, total);
+    }
+
+    /**
+     * 没有配置任何监控项时视为正常，不应显示为故障
+     */
+    private static int combine(int up, int total) {
+        if (up == total) {
+            return STATUS_UP;
         }
-        return 2;
+        return up == 0 ? STATUS_DOWN : STATUS_PARTIAL;
     }
 
-    private String buildHeartbeatApiUrl(String statusPageUrl) throws URISyntaxException {
+    private StatusPageApi buildStatusPageApi(String statusPageUrl) throws URISyntaxException {
         var uri = new URI(statusPageUrl);
 
         var baseUrl = uri.getPort() == -1
@@ -100,7 +263,9 @@ public class UptimeKumaServiceImpl implements UptimeKumaService {
             slug = StrUtil.blankToDefault(segments.size() >= 2 ? segments.get(1) : null, "heartbeat");
         }
 
-        return StrFormatter.format("{}/api/status-page/heartbeat/{}", baseUrl, slug);
+        return new StatusPageApi(StrFormatter.format("{}/api/status-page/{}", baseUrl, slug),
+            StrFormatter.format("{}/api/status-page/heartbeat/{}", baseUrl, slug));
     }
-}
 
+    private record StatusPageApi(String configUrl, String heartbeatUrl) {}
+}
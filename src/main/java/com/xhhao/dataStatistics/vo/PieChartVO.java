@@ -49,4 +49,12 @@ public class PieChartVO {
         private Integer views;  // 访问量
     }
 
+    // top10 评论最多的文章
+    private List<Top10CommentedArticle> top10CommentedArticles = new ArrayList<>();
+    @Data
+    public static class Top10CommentedArticle {
+        private String name;  // 名称
+        private Integer comments;  // 评论数
+    }
+
 }
\ No newline at end of file
@@ -61,6 +61,170 @@
         });
     }
 
+    // ==================== 实时数据推送 ====================
+
+    const STREAM_URL = '/apis/api.data.statistics.xhhao.com/v1alpha1/stream';
+    const liveSubscribers = { realtime: new Set(), uptime: new Set() };
+    const liveLatest = {};
+    let liveSource = null;
+    let liveUnavailable = typeof EventSource === 'undefined';
+
+    // liveLatest 保存每种数据最近一次的结果（data 或 error），新订阅者立即获得
+    function dispatchLive(type, data) {
+        liveLatest[type] = { data };
+        liveSubscribers[type].forEach(subscriber => subscriber.onData(data));
+    }
+
+    function dispatchLiveError(type, error) {
+        liveLatest[type] = { error };
+        liveSubscribers[type].forEach(subscriber => subscriber.onError(error));
+    }
+
+    // 同一页面的所有组件共用一个 EventSource 连接
+    function openLiveStream() {
+        if (liveSource || liveUnavailable) return;
+
+        liveSource = new EventSource(STREAM_URL);
+        Object.keys(liveSubscribers).forEach(type => {
+            liveSource.addEventListener(type, event => {
+                try {
+                    dispatchLive(type, JSON.parse(event.data));
+                } catch (err) {
+                    console.error('[Live Stream]', err);
+                }
+            });
+            // 服务端拉取上游失败时推送 {type}-error
+            liveSource.addEventListener(type + '-error', event => {
+                let message = '加载失败';
+                try {
+                    const body = JSON.parse(event.data);
+                    message = body.error || body.message || message;
+                } catch (err) {
+                    // 保留默认提示
+                }
+                dispatchLiveError(type, new Error(message));
+            });
+        });
+        liveSource.onerror = () => {
+            // 网络中断时浏览器会自动重连；连接被关闭（接口不可用）时退回轮询
+            if (liveSource && liveSource.readyState === EventSource.CLOSED) {
+                liveSource = null;
+                liveUnavailable = true;
+                Object.values(liveSubscribers).forEach(set => set.forEach(startPolling));
+            }
+        };
+    }
+
+    function closeLiveStreamIfIdle() {
+        if (liveSource && Object.values(liveSubscribers).every(set => set.size === 0)) {
+            liveSource.close();
+            liveSource = null;
+        }
+    }
+
+    function startPolling(subscriber) {
+        if (subscriber.timer) return;
+
+        // 标签页不可见时跳过本轮轮询，重新可见时立即补拉一次
+        const poll = () => {
+            if (document.hidden) return;
+            safeFetch(subscriber.url)
+                .then(subscriber.onData)
+                .catch(subscriber.onError);
+        };
+        subscriber.poll = poll;
+        poll();
+        subscriber.timer = setInterval(poll, subscriber.interval);
+    }
+
+    // 标签页隐藏时断开推送连接，重新可见时重连，服务端会立即推送最新数据
+    document.addEventListener('visibilitychange', () => {
+        const hasSubscribers = Object.values(liveSubscribers).some(set => set.size > 0);
+        if (!hasSubscribers) return;
+
+        if (document.hidden) {
+            if (liveSource) {
+                liveSource.close();
+                liveSource = null;
+            }
+        } else if (liveUnavailable) {
+            Object.values(liveSubscribers).forEach(set => set.forEach(subscriber => subscriber.poll && subscriber.poll()));
+        } else {
+            openLiveStream();
+        }
+    });
+
+    // 元素进入视口（含预加载边距）后再初始化，不支持 IntersectionObserver 时立即初始化
+    const VISIBILITY_ROOT_MARGIN = '200px';
+    let visibilityObserver = null;
+    const visibilityCallbacks = new WeakMap();
+
+    function whenVisible(element, callback) {
+        if (visibilityCallbacks.has(element)) return;
+
+        if (typeof IntersectionObserver === 'undefined') {
+            visibilityCallbacks.set(element, null);
+            callback();
+            return;
+        }
+        if (!visibilityObserver) {
+            visibilityObserver = new IntersectionObserver(entries => {
+                entries.forEach(entry => {
+                    if (!entry.isIntersecting) return;
+                    visibilityObserver.unobserve(entry.target);
+                    const pending = visibilityCallbacks.get(entry.target);
+                    visibilityCallbacks.set(entry.target, null);
+                    if (pending) pending();
+                });
+            }, { rootMargin: VISIBILITY_ROOT_MARGIN });
+        }
+        visibilityCallbacks.set(element, callback);
+        visibilityObserver.observe(element);
+    }
+
+    // 订阅实时数据，优先使用服务端推送，不支持时按 interval 轮询 url；元素移出页面后自动退订
+    function subscribeLive(element, type, url, interval, onData, onError) {
+        const subscriber = { url, interval, timer: null };
+        const unsubscribe = () => {
+            liveSubscribers[type].delete(subscriber);
+            if (subscriber.timer) {
+                clearInterval(subscriber.timer);
+                subscriber.timer = null;
+            }
+            closeLiveStreamIfIdle();
+        };
+        subscriber.onData = data => {
+            if (!element.isConnected) {
+                unsubscribe();
+                return;
+            }
+            onData(data);
+        };
+        subscriber.onError = err => {
+            if (!element.isConnected) {
+                unsubscribe();
+                return;
+            }
+            onError(err);
+        };
+
+        liveSubscribers[type].add(subscriber);
+        if (liveUnavailable) {
+            startPolling(subscriber);
+        } else {
+            openLiveStream();
+            const latest = liveLatest[type];
+            if (latest) {
+                if (latest.error) {
+                    subscriber.onError(latest.error);
+                } else {
+                    subscriber.onData(latest.data);
+                }
+            }
+        }
+        return unsubscribe;
+    }
+
     // ==================== 国际化相关 ====================
     
     const regionDisplay = typeof Intl !== 'undefined' && typeof Intl.DisplayNames === 'function'
@@ -243,14 +407,15 @@
         showLoading(element);
 
         const type = element.getAttribute('data-type') || 'weekly';
-        const visitUrl = `/apis/api.data.statistics.xhhao.com/v1alpha1/umami/visits?type=${type}`;
+        const dashboardUrl = `/apis/api.data.statistics.xhhao.com/v1alpha1/dashboard?widgets=visits,realtime&type=${type}`;
         const realtimeUrl = '/apis/api.data.statistics.xhhao.com/v1alpha1/umami/realtime';
         
-        Promise.all([
-            safeFetch(visitUrl),
-            safeFetch(realtimeUrl)
-        ])
-        .then(([visitData, realtimeData]) => {
+        // 历史与实时数据合并为一次请求，单项失败时其余数据照常展示
+        safeFetch(dashboardUrl)
+        .then(({ data = {}, errors = {} }) => {
+            Object.entries(errors).forEach(([widget, error]) => console.warn('[Traffic Stats]', widget, error));
+            const visitData = data.visits;
+            const realtimeData = data.realtime;
             if (!visitData && !realtimeData) {
                 element.innerHTML = '<div class="xhhaocom-dataStatistics-v2-traffic-loading">暂无数据</div>';
                 return;
@@ -307,33 +472,28 @@
             element.innerHTML = '<div class="xhhaocom-dataStatistics-v2-traffic-error">加载失败</div>';
         });
 
-        const updateRealtime = () => {
-            safeFetch(realtimeUrl)
-                .then(realtimeData => {
-                    if (realtimeData?.totals) {
-                        const realtimeCards = element.querySelectorAll('.xhhaocom-dataStatistics-v2-traffic-card');
-                        const realtimeViews = parseInt(realtimeData.totals.views) || 0;
-                        const realtimeVisitors = parseInt(realtimeData.totals.visitors) || 0;
-                        
-                        realtimeCards.forEach(card => {
-                            const label = card.querySelector('.xhhaocom-dataStatistics-v2-traffic-label')?.textContent;
-                            const valueEl = card.querySelector('.xhhaocom-dataStatistics-v2-traffic-value');
-                            if (!valueEl) return;
-                            
-                            if (label === '实时浏览量') {
-                                valueEl.textContent = formatNumber(realtimeViews);
-                            } else if (label === '实时访客') {
-                                valueEl.textContent = formatNumber(realtimeVisitors);
-                            }
-                        });
+        const updateRealtime = realtimeData => {
+            if (realtimeData?.totals) {
+                const realtimeCards = element.querySelectorAll('.xhhaocom-dataStatistics-v2-traffic-card');
+                const realtimeViews = parseInt(realtimeData.totals.views) || 0;
+                const realtimeVisitors = parseInt(realtimeData.totals.visitors) || 0;
+                
+                realtimeCards.forEach(card => {
+                    const label = card.querySelector('.xhhaocom-dataStatistics-v2-traffic-label')?.textContent;
+                    const valueEl = card.querySelector('.xhhaocom-dataStatistics-v2-traffic-value');
+                    if (!valueEl) return;
+                    
+                    if (label === '实时浏览量') {
+                        valueEl.textContent = formatNumber(realtimeViews);
+                    } else if (label === '实时访客') {
+                        valueEl.textContent = formatNumber(realtimeVisitors);
                     }
-                })
-                .catch(err => console.error('[Realtime Update]', err));
+                });
+            }
         };
-        
-        setTimeout(updateRealtime, 1000);
-        const interval = setInterval(updateRealtime, 30000);
-        element.setAttribute('data-cleanup', interval);
+
+        subscribeLive(element, 'realtime', realtimeUrl, 30000, updateRealtime,
+            err => console.error('[Realtime Update]', err));
     }
 
     // ==================== 实时活动组件 ====================
@@ -344,100 +504,94 @@
 
         const realtimeUrl = '/apis/api.data.statistics.xhhao.com/v1alpha1/umami/realtime';
 
-        const updateActivity = () => {
-            safeFetch(realtimeUrl)
-                .then(data => {
-                    if (!data?.events || !Array.isArray(data.events) || data.events.length === 0) {
-                        element.innerHTML = '<div class="xhhaocom-dataStatistics-v2-activity-empty">暂无活动</div>';
-                        return;
-                    }
-                    
-                    element.innerHTML = '';
-
-                    const section = document.createElement('div');
-                    section.className = 'xhhaocom-dataStatistics-v2-activity-section';
-
-                    const header = document.createElement('div');
-                    header.className = 'xhhaocom-dataStatistics-v2-activity-header';
-                    header.innerHTML = `
-                        <div class="xhhaocom-dataStatistics-v2-activity-title-box">
-                            <span class="xhhaocom-dataStatistics-v2-activity-title">近30分钟网站活动</span>
-                            <span class="xhhaocom-dataStatistics-v2-activity-badge-wrapper">
-                                <span class="xhhaocom-dataStatistics-v2-activity-badge"></span>
-                                <span class="xhhaocom-dataStatistics-v2-activity-badge-text">实时数据</span>
+        const updateActivity = data => {
+            if (!data?.events || !Array.isArray(data.events) || data.events.length === 0) {
+                element.innerHTML = '<div class="xhhaocom-dataStatistics-v2-activity-empty">暂无活动</div>';
+                return;
+            }
+            
+            element.innerHTML = '';
+
+            const section = document.createElement('div');
+            section.className = 'xhhaocom-dataStatistics-v2-activity-section';
+
+            const header = document.createElement('div');
+            header.className = 'xhhaocom-dataStatistics-v2-activity-header';
+            header.innerHTML = `
+                <div class="xhhaocom-dataStatistics-v2-activity-title-box">
+                    <span class="xhhaocom-dataStatistics-v2-activity-title">近30分钟网站活动</span>
+                    <span class="xhhaocom-dataStatistics-v2-activity-badge-wrapper">
+                        <span class="xhhaocom-dataStatistics-v2-activity-badge"></span>
+                        <span class="xhhaocom-dataStatistics-v2-activity-badge-text">实时数据</span>
+                    </span>
+                </div>
+                <span class="xhhaocom-dataStatistics-v2-activity-subtitle">
+                    捕捉最新访客动态与来源
+                </span>
+            `;
+            section.appendChild(header);
+
+            const totals = data.totals || {};
+            const listContainer = document.createElement('div');
+            listContainer.className = 'xhhaocom-dataStatistics-v2-activity-body';
+
+            const metricsBar = document.createElement('div');
+            metricsBar.className = 'xhhaocom-dataStatistics-v2-activity-metrics';
+            const uniqueVisitors = parseInt(totals.visitors) || 0;
+            const totalViews = parseInt(totals.views) || 0;
+            const activePages = new Set();
+            data.events.forEach(event => {
+                if (event.urlPath) {
+                    activePages.add(event.urlPath);
+                }
+            });
+
+            metricsBar.appendChild(createActivityMetric('fire', totalViews, '实时浏览量'));
+            metricsBar.appendChild(createActivityMetric('account', uniqueVisitors, '实时访客'));
+            metricsBar.appendChild(createActivityMetric('eye', activePages.size, '活跃页面数'));
+            listContainer.appendChild(metricsBar);
+
+            const events = data.events.slice(0, MAX_ACTIVITY_EVENTS);
+            const list = document.createElement('div');
+            list.className = 'xhhaocom-dataStatistics-v2-activity-list';
+
+            events.forEach(event => {
+                const item = document.createElement('div');
+                item.className = 'xhhaocom-dataStatistics-v2-activity-item';
+                const time = new Date(event.createdAt);
+                const timeStr = formatTimeChinese(time);
+                const urlPath = event.urlPath || '/';
+
+                item.innerHTML = `
+                    <div class="xhhaocom-dataStatistics-v2-activity-content">
+                        <div class="xhhaocom-dataStatistics-v2-activity-time-line">
+                            <span class="xhhaocom-dataStatistics-v2-activity-time">${timeStr}</span>
+                            <span class="xhhaocom-dataStatistics-v2-activity-separator">
+                                ${createIcon('eye', 14)}
+                                <span>${urlPath}</span>
                             </span>
                         </div>
-                        <span class="xhhaocom-dataStatistics-v2-activity-subtitle">
-                            捕捉最新访客动态与来源
-                        </span>
-                    `;
-                    section.appendChild(header);
-
-                    const totals = data.totals || {};
-                    const listContainer = document.createElement('div');
-                    listContainer.className = 'xhhaocom-dataStatistics-v2-activity-body';
-
-                    const metricsBar = document.createElement('div');
-                    metricsBar.className = 'xhhaocom-dataStatistics-v2-activity-metrics';
-                    const uniqueVisitors = parseInt(totals.visitors) || 0;
-                    const totalViews = parseInt(totals.views) || 0;
-                    const activePages = new Set();
-                    data.events.forEach(event => {
-                        if (event.urlPath) {
-                            activePages.add(event.urlPath);
-                        }
-                    });
-
-                    metricsBar.appendChild(createActivityMetric('fire', totalViews, '实时浏览量'));
-                    metricsBar.appendChild(createActivityMetric('account', uniqueVisitors, '实时访客'));
-                    metricsBar.appendChild(createActivityMetric('eye', activePages.size, '活跃页面数'));
-                    listContainer.appendChild(metricsBar);
-
-                    const events = data.events.slice(0, MAX_ACTIVITY_EVENTS);
-                    const list = document.createElement('div');
-                    list.className = 'xhhaocom-dataStatistics-v2-activity-list';
-
-                    events.forEach(event => {
-                        const item = document.createElement('div');
-                        item.className = 'xhhaocom-dataStatistics-v2-activity-item';
-                        const time = new Date(event.createdAt);
-                        const timeStr = formatTimeChinese(time);
-                        const urlPath = event.urlPath || '/';
-
-                        item.innerHTML = `
-                            <div class="xhhaocom-dataStatistics-v2-activity-content">
-                                <div class="xhhaocom-dataStatistics-v2-activity-time-line">
-                                    <span class="xhhaocom-dataStatistics-v2-activity-time">${timeStr}</span>
-                                    <span class="xhhaocom-dataStatistics-v2-activity-separator">
-                                        ${createIcon('eye', 14)}
-                                        <span>${urlPath}</span>
-                                    </span>
-                                </div>
-                                <div class="xhhaocom-dataStatistics-v2-activity-detail">
-                                    <span class="xhhaocom-dataStatistics-v2-activity-person">
-                                        ${createIcon('account', 14)}
-                                    </span>
-                                    <span class="xhhaocom-dataStatistics-v2-activity-text">${formatDeviceInfo(event)}</span>
-                                </div>
-                            </div>
-                        `;
-
-                        list.appendChild(item);
-                    });
-                    listContainer.appendChild(list);
-                    section.appendChild(listContainer);
-
-                    element.appendChild(section);
-                })
-                .catch(err => {
-                    console.error('[Activity]', err);
-                    element.innerHTML = '<div class="xhhaocom-dataStatistics-v2-activity-error">加载失败</div>';
-                });
+                        <div class="xhhaocom-dataStatistics-v2-activity-detail">
+                            <span class="xhhaocom-dataStatistics-v2-activity-person">
+                                ${createIcon('account', 14)}
+                            </span>
+                            <span class="xhhaocom-dataStatistics-v2-activity-text">${formatDeviceInfo(event)}</span>
+                        </div>
+                    </div>
+                `;
+
+                list.appendChild(item);
+            });
+            listContainer.appendChild(list);
+            section.appendChild(listContainer);
+
+            element.appendChild(section);
         };
-        
-        updateActivity();
-        const interval = setInterval(updateActivity, 30000);
-        element.setAttribute('data-cleanup', interval);
+
+        subscribeLive(element, 'realtime', realtimeUrl, 30000, updateActivity, err => {
+            console.error('[Activity]', err);
+            element.innerHTML = '<div class="xhhaocom-dataStatistics-v2-activity-error">加载失败</div>';
+        });
     }
 
     // ==================== Uptime Kuma 组件 ====================
@@ -448,61 +602,55 @@
 
         const statusUrl = '/apis/api.data.statistics.xhhao.com/v1alpha1/uptime/status';
 
-        const updateStatus = () => {
-            safeFetch(statusUrl)
-                .then(result => {
-                    element.innerHTML = '';
+        const updateStatus = result => {
+            element.innerHTML = '';
 
-                    const status = result?.status;
-                    const statusPageUrl = result?.statusPageUrl || '';
-                    const hasLink = Boolean(statusPageUrl);
+            const status = result?.status;
+            const statusPageUrl = result?.statusPageUrl || '';
+            const hasLink = Boolean(statusPageUrl);
 
-                    const wrapper = document.createElement(hasLink ? 'a' : 'div');
-                    wrapper.className = 'xhhaocom-dataStatistics-v2-uptime-kuma__content';
-                    wrapper.title = '查看我的项目状态';
-                    wrapper.dataset.tipTitle = '查看我的项目状态';
-                    
-                    if (hasLink) {
-                        wrapper.href = statusPageUrl;
-                        wrapper.target = '_blank';
-                        wrapper.rel = 'noopener noreferrer';
-                    } else {
-                        wrapper.classList.add('is-static');
-                    }
+            const wrapper = document.createElement(hasLink ? 'a' : 'div');
+            wrapper.className = 'xhhaocom-dataStatistics-v2-uptime-kuma__content';
+            wrapper.title = '查看我的项目状态';
+            wrapper.dataset.tipTitle = '查看我的项目状态';
+            
+            if (hasLink) {
+                wrapper.href = statusPageUrl;
+                wrapper.target = '_blank';
+                wrapper.rel = 'noopener noreferrer';
+            } else {
+                wrapper.classList.add('is-static');
+            }
 
-                    const statusDot = document.createElement('span');
-                    statusDot.className = 'xhhaocom-dataStatistics-v2-uptime-kuma-dot';
-                    statusDot.title = '查看我的项目状态';
-                    statusDot.dataset.tipTitle = '查看我的项目状态';
+            const statusDot = document.createElement('span');
+            statusDot.className = 'xhhaocom-dataStatistics-v2-uptime-kuma-dot';
+            statusDot.title = '查看我的项目状态';
+            statusDot.dataset.tipTitle = '查看我的项目状态';
 
-                    const statusText = document.createElement('span');
-                    statusText.className = 'xhhaocom-dataStatistics-v2-uptime-kuma-text';
+            const statusText = document.createElement('span');
+            statusText.className = 'xhhaocom-dataStatistics-v2-uptime-kuma-text';
 
-                    const statusConfig = {
-                        0: { class: 'error', text: '全部业务异常', wrapperClass: 'error' },
-                        1: { class: 'success', text: '所有业务正常', wrapperClass: 'success' },
-                        2: { class: 'warning', text: '部分业务异常', wrapperClass: 'warning' }
-                    };
+            const statusConfig = {
+                0: { class: 'error', text: '全部业务异常', wrapperClass: 'error' },
+                1: { class: 'success', text: '所有业务正常', wrapperClass: 'success' },
+                2: { class: 'warning', text: '部分业务异常', wrapperClass: 'warning' }
+            };
 
-                    const config = statusConfig[status] || { class: 'loading', text: '加载中', wrapperClass: 'muted' };
-                    
-                    statusDot.classList.add(`xhhaocom-dataStatistics-v2-uptime-kuma-dot--${config.class}`);
-                    statusText.textContent = config.text;
-                    wrapper.classList.add(`xhhaocom-dataStatistics-v2-uptime-kuma__content--${config.wrapperClass}`);
-
-                    wrapper.appendChild(statusDot);
-                    wrapper.appendChild(statusText);
-                    element.appendChild(wrapper);
-                })
-                .catch(err => {
-                    console.error('[Uptime Kuma Status]', err);
-                    element.innerHTML = '<div class="xhhaocom-dataStatistics-v2-uptime-kuma-error">加载失败</div>';
-                });
+            const config = statusConfig[status] || { class: 'loading', text: '加载中', wrapperClass: 'muted' };
+            
+            statusDot.classList.add(`xhhaocom-dataStatistics-v2-uptime-kuma-dot--${config.class}`);
+            statusText.textContent = config.text;
+            wrapper.classList.add(`xhhaocom-dataStatistics-v2-uptime-kuma__content--${config.wrapperClass}`);
+
+            wrapper.appendChild(statusDot);
+            wrapper.appendChild(statusText);
+            element.appendChild(wrapper);
         };
 
-        updateStatus();
-        const interval = setInterval(updateStatus, 60000);
-        element.setAttribute('data-cleanup', interval);
+        subscribeLive(element, 'uptime', statusUrl, 60000, updateStatus, err => {
+            console.error('[Uptime Kuma Status]', err);
+            element.innerHTML = '<div class="xhhaocom-dataStatistics-v2-uptime-kuma-error">加载失败</div>';
+        });
     }
 
     // ==================== GitHub 相关 ====================
@@ -772,7 +920,9 @@
 
         // 处理 GitHub 统一容器
         document.querySelectorAll('.github-statistics-container').forEach(container => {
-            initGithubStatisticsContainer(container);
+            if (!container.hasAttribute('data-initialized')) {
+                whenVisible(container, () => initGithubStatisticsContainer(container));
+            }
         });
 
         // 处理单个组件
@@ -785,7 +935,7 @@
                 const componentType = detectComponentType(element.className);
                 if (componentType) {
                     element.setAttribute('data-initialized', 'true');
-                    initComponent(element, componentType);
+                    whenVisible(element, () => initComponent(element, componentType));
                 }
             });
         });
@@ -0,0 +1,80 @@
+(function () {
+    'use strict';
+
+    // 资源地址由 head 注入的 script 标签通过 data-* 属性传入
+    const script = document.currentScript;
+    if (!script) return;
+    const assets = script.dataset;
+
+    const CHART_SELECTOR = '.xhhaocom-chartboard';
+    const WIDGET_SELECTOR = [
+        '.github-statistics-container',
+        '.xhhaocom-dataStatistics-v2-traffic',
+        '.xhhaocom-dataStatistics-v2-activity',
+        '.xhhaocom-dataStatistics-v2-uptime-kuma',
+        '.xhhaocom-dataStatistics-v2-github-pin',
+        '.xhhaocom-dataStatistics-v2-github-stats',
+        '.xhhaocom-dataStatistics-v2-github-top-langs',
+        '.xhhaocom-dataStatistics-v2-github-graph'
+    ].join(',');
+
+    let chartsRequested = false;
+    let widgetsRequested = false;
+    let observer = null;
+
+    function loadScript(src) {
+        return new Promise((resolve, reject) => {
+            const el = document.createElement('script');
+            el.src = src;
+            el.async = false;
+            el.onload = resolve;
+            el.onerror = () => reject(new Error(`加载失败: ${src}`));
+            document.head.appendChild(el);
+        });
+    }
+
+    // 页面中出现对应容器时才下载图表库与组件代码，样式已由 head 中的 link 加载
+    function check() {
+        if (!chartsRequested && document.querySelector(CHART_SELECTOR)) {
+            chartsRequested = true;
+            loadScript(assets.chartJs)
+                .then(() => loadScript(assets.siteChartsJs))
+                .catch(err => console.error('[Data Statistics]', err));
+        }
+
+        if (!widgetsRequested && document.querySelector(WIDGET_SELECTOR)) {
+            widgetsRequested = true;
+            loadScript(assets.dataStatisticsJs)
+                .catch(err => console.error('[Data Statistics]', err));
+        }
+
+        if (chartsRequested && widgetsRequested && observer) {
+            observer.disconnect();
+            observer = null;
+        }
+    }
+
+    function init() {
+        check();
+        if (chartsRequested && widgetsRequested) return;
+        if (typeof MutationObserver === 'undefined') return;
+
+        // 兼容无刷新跳转（PJAX）等后插入的容器，同一帧内的多次变更只检查一次
+        let scheduled = false;
+        observer = new MutationObserver(() => {
+            if (scheduled) return;
+            scheduled = true;
+            requestAnimationFrame(() => {
+                scheduled = false;
+                check();
+            });
+        });
+        observer.observe(document.body, { childList: true, subtree: true });
+    }
+
+    if (document.readyState === 'loading') {
+        document.addEventListener('DOMContentLoaded', init);
+    } else {
+        init();
+    }
+})();
@@ -915,17 +915,37 @@
         }
     }
 
+    // 同一页面的多个图表容器共用一次请求；与接口的 max-age 一致，超过 60 秒后重新请求，PJAX 跳转后可获取新数据
+    const CHART_DATA_MAX_AGE = 60 * 1000;
+    let chartDataRequest = null;
+    let chartDataRequestedAt = 0;
+
+    function fetchChartData() {
+        if (!chartDataRequest || Date.now() - chartDataRequestedAt > CHART_DATA_MAX_AGE) {
+            chartDataRequestedAt = Date.now();
+            const request = fetch(API_ENDPOINT)
+                .then(response => {
+                    if (!response.ok) {
+                        throw new Error(`HTTP ${response.status}`);
+                    }
+                    return response.json();
+                })
+                .catch(error => {
+                    if (chartDataRequest === request) {
+                        chartDataRequest = null;
+                    }
+                    throw error;
+                });
+            chartDataRequest = request;
+        }
+        return chartDataRequest;
+    }
+
     function fetchAndRender(container) {
         container.classList.add('xhhaocom-chartboard');
         container.innerHTML = '<div class="xhhaocom-chartboard-loading">数据加载中…</div>';
 
-        fetch(API_ENDPOINT)
-            .then(response => {
-                if (!response.ok) {
-                    throw new Error(`HTTP ${response.status}`);
-                }
-                return response.json();
-            })
+        fetchChartData()
             .then(data => renderCharts(container, data || {}))
             .catch(error => {
                 console.error('[ChartBoard] fetch error:', error);
@@ -947,12 +967,28 @@
         setTimeout(() => waitForChart(callback, maxAttempts - 1), 100);
     }
 
+    // 容器进入视口（含预加载边距）后再请求数据，不支持 IntersectionObserver 时立即请求
+    const visibilityObserver = typeof IntersectionObserver !== 'undefined'
+        ? new IntersectionObserver(entries => {
+            entries.forEach(entry => {
+                if (entry.isIntersecting) {
+                    visibilityObserver.unobserve(entry.target);
+                    fetchAndRender(entry.target);
+                }
+            });
+        }, { rootMargin: '200px' })
+        : null;
+
     function init() {
         waitForChart(() => {
             document.querySelectorAll('.xhhaocom-chartboard').forEach(container => {
                 if (!container.hasAttribute('data-initialized')) {
                     container.setAttribute('data-initialized', 'true');
-                    fetchAndRender(container);
+                    if (visibilityObserver) {
+                        visibilityObserver.observe(container);
+                    } else {
+                        fetchAndRender(container);
+                    }
                 }
             });
         });
@@ -0,0 +1,59 @@
+package com.xhhao.dataStatistics.aggregate;
+
+import java.time.Instant;
+import java.util.Map;
+
+import run.halo.app.core.extension.content.Comment;
+import run.halo.app.core.extension.content.Post;
+import run.halo.app.extension.Metadata;
+
+/**
+ * 聚合存储测试与基准测试共用的扩展对象构造方法，版本号均从 1 开始
+ */
+public final class AggregateFixtures {
+
+    private AggregateFixtures() {
+    }
+
+    public static Post post(String name, Instant publishTime, String statsJson) {
+        Metadata metadata = metadata(name);
+        metadata.setCreationTimestamp(publishTime);
+        if (statsJson != null) {
+            metadata.setAnnotations(Map.of(PostStatsParser.STATS_ANNOTATION, statsJson));
+        }
+        Post.PostSpec spec = new Post.PostSpec();
+        spec.setTitle("Post " + name);
+        spec.setPublishTime(publishTime);
+        Post post = new Post();
+        post.setMetadata(metadata);
+        post.setSpec(spec);
+        return post;
+    }
+
+    public static String statsJson(int visit, int upvote, int comment) {
+        return "{\"visit\":" + visit + ",\"upvote\":" + upvote + ",\"comment\":" + comment + "}";
+    }
+
+    /**
+     * @param owner 评论者邮箱，@ 之前的部分作为显示名
+     */
+    public static Comment comment(String name, String owner) {
+        Comment.CommentOwner commentOwner = new Comment.CommentOwner();
+        commentOwner.setKind("Email");
+        commentOwner.setName(owner);
+        commentOwner.setDisplayName(owner.substring(0, owner.indexOf('@')));
+        Comment.CommentSpec spec = new Comment.CommentSpec();
+        spec.setOwner(commentOwner);
+        Comment comment = new Comment();
+        comment.setMetadata(metadata(name));
+        comment.setSpec(spec);
+        return comment;
+    }
+
+    private static Metadata metadata(String name) {
+        Metadata metadata = new Metadata();
+        metadata.setName(name);
+        metadata.setVersion(1L);
+        return metadata;
+    }
+}
@@ -0,0 +1,210 @@
+package com.xhhao.dataStatistics.aggregate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.xhhao.dataStatistics.common.Constants;
+import com.xhhao.dataStatistics.vo.PieChartVO;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import run.halo.app.core.extension.content.Comment;
+import run.halo.app.core.extension.content.Post;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.ListResult;
+import run.halo.app.extension.PageRequest;
+import run.halo.app.extension.ReactiveExtensionClient;
+
+class ChartAggregateStoreTest {
+
+    private ChartAggregateStore store;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveExtensionClient client = mock(ReactiveExtensionClient.class);
+        when(client.listBy(any(), any(ListOptions.class), any(PageRequest.class)))
+            .thenAnswer(invocation -> Mono.just(new ListResult<>(1, 500, 0, List.of())));
+        store = new ChartAggregateStore(client);
+        // 2024-06-09 周日、06-10 周一、06-16 周日、06-17 周一
+        store.upsertPost(post("a", LocalDate.of(2024, 6, 9)));
+        store.upsertPost(post("b", LocalDate.of(2024, 6, 10)));
+        store.upsertPost(post("c", LocalDate.of(2024, 6, 16)));
+        store.upsertPost(post("d", LocalDate.of(2024, 6, 17)));
+    }
+
+    @Test
+    void bucketsAtRangeEdgesOnlyCountDaysInsideRange() {
+        StepVerifier.create(store.getArticleHistogram(LocalDate.of(2024, 6, 9), LocalDate.of(2024, 6, 16),
+                Granularity.WEEK))
+            .assertNext(buckets -> {
+                assertThat(buckets).extracting(PieChartVO.Article::getName)
+                    .containsExactly("2024-06-03", "2024-06-10");
+                // 首个桶从 06-03 开始，但只统计区间内的 06-09；06-17 不在区间内
+                assertThat(buckets).extracting(PieChartVO.Article::getTotal)
+                    .containsExactly(1, 2);
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void dayBucketsCoverBothRangeEnds() {
+        StepVerifier.create(store.getArticleHistogram(LocalDate.of(2024, 6, 16), LocalDate.of(2024, 6, 17),
+                Granularity.DAY))
+            .assertNext(buckets -> assertThat(buckets).extracting(PieChartVO.Article::getTotal)
+                .containsExactly(1, 1))
+            .verifyComplete();
+    }
+
+    @Test
+    void singleMonthBucketForRangeInsideOneMonth() {
+        StepVerifier.create(store.getArticleHistogram(LocalDate.of(2024, 6, 10), LocalDate.of(2024, 6, 16),
+                Granularity.MONTH))
+            .assertNext(buckets -> {
+                assertThat(buckets).extracting(PieChartVO.Article::getName).containsExactly("2024-06");
+                assertThat(buckets).extracting(PieChartVO.Article::getTotal).containsExactly(2);
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void movedPostIsCountedOnItsNewDayOnly() {
+        Post moved = post("a", LocalDate.of(2024, 6, 17));
+        moved.getMetadata().setVersion(2L);
+        store.upsertPost(moved);
+
+        StepVerifier.create(store.getArticleHistogram(LocalDate.of(2024, 6, 9), LocalDate.of(2024, 6, 17),
+                Granularity.DAY))
+            .assertNext(buckets -> {
+                assertThat(buckets.get(0).getTotal()).isZero();
+                assertThat(buckets.get(buckets.size() - 1).getTotal()).isEqualTo(2);
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void olderPostVersionIsIgnored() {
+        Post newer = post("e", LocalDate.of(2024, 7, 1));
+        newer.getMetadata().setVersion(3L);
+        store.upsertPost(newer);
+        // 乱序到达的旧版本事件不应覆盖新版本
+        Post older = post("e", LocalDate.of(2024, 7, 2));
+        older.getMetadata().setVersion(2L);
+        store.upsertPost(older);
+
+        assertThat(dailyTotals(LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 2))).containsExactly(1, 0);
+    }
+
+    @Test
+    void sameVersionKeepsParsedStats() {
+        store.upsertPost(AggregateFixtures.post("e", publishTime(LocalDate.of(2024, 7, 1)),
+            AggregateFixtures.statsJson(100, 0, 0)));
+        // 版本号未变化时不重新解析注解
+        store.upsertPost(AggregateFixtures.post("e", publishTime(LocalDate.of(2024, 7, 1)),
+            AggregateFixtures.statsJson(5, 0, 0)));
+
+        assertThat(store.snapshot().getTop10Articles()).first()
+            .extracting(PieChartVO.Top10Article::getViews)
+            .isEqualTo(100);
+    }
+
+    @Test
+    void removedPostLeavesHistogramAndTopArticles() {
+        store.upsertPost(AggregateFixtures.post("e", publishTime(LocalDate.of(2024, 7, 1)),
+            AggregateFixtures.statsJson(100, 0, 3)));
+        assertThat(store.snapshot().getTop10CommentedArticles()).hasSize(1);
+
+        store.removePost("e");
+
+        assertThat(dailyTotals(LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 1))).containsExactly(0);
+        assertThat(store.snapshot().getTop10Articles()).extracting(PieChartVO.Top10Article::getName)
+            .doesNotContain("Post e");
+        assertThat(store.snapshot().getTop10CommentedArticles()).isEmpty();
+    }
+
+    @Test
+    void deletingPostIsTreatedAsRemoval() {
+        Post deleting = post("a", LocalDate.of(2024, 6, 9));
+        deleting.getMetadata().setVersion(2L);
+        deleting.getMetadata().setDeletionTimestamp(Instant.now());
+        store.upsertPost(deleting);
+
+        assertThat(dailyTotals(LocalDate.of(2024, 6, 9), LocalDate.of(2024, 6, 9))).containsExactly(0);
+    }
+
+    @Test
+    void commentsAreCountedPerOwner() {
+        store.upsertComment(AggregateFixtures.comment("c1", "alice@example.com"));
+        store.upsertComment(AggregateFixtures.comment("c2", "alice@example.com"));
+        store.upsertComment(AggregateFixtures.comment("c3", "bob@example.com"));
+        // 同一评论的重复事件不重复计数
+        store.upsertComment(AggregateFixtures.comment("c3", "bob@example.com"));
+
+        assertThat(commentCounts()).containsExactly(entry("alice@example.com", 2), entry("bob@example.com", 1));
+    }
+
+    @Test
+    void ownerChangeMovesCommentToNewOwner() {
+        store.upsertComment(AggregateFixtures.comment("c1", "alice@example.com"));
+        Comment moved = AggregateFixtures.comment("c1", "bob@example.com");
+        moved.getMetadata().setVersion(2L);
+        store.upsertComment(moved);
+
+        assertThat(commentCounts()).containsExactly(entry("bob@example.com", 1));
+    }
+
+    @Test
+    void olderCommentVersionIsIgnored() {
+        Comment newer = AggregateFixtures.comment("c1", "bob@example.com");
+        newer.getMetadata().setVersion(2L);
+        store.upsertComment(newer);
+        store.upsertComment(AggregateFixtures.comment("c1", "alice@example.com"));
+
+        assertThat(commentCounts()).containsExactly(entry("bob@example.com", 1));
+    }
+
+    @Test
+    void removedOrDeletingCommentsAreNoLongerCounted() {
+        store.upsertComment(AggregateFixtures.comment("c1", "alice@example.com"));
+        store.upsertComment(AggregateFixtures.comment("c2", "alice@example.com"));
+        store.removeComment("c1");
+        Comment deleting = AggregateFixtures.comment("c2", "alice@example.com");
+        deleting.getMetadata().setVersion(2L);
+        deleting.getMetadata().setDeletionTimestamp(Instant.now());
+        store.upsertComment(deleting);
+
+        assertThat(commentCounts()).isEmpty();
+    }
+
+    private List<Integer> dailyTotals(LocalDate from, LocalDate to) {
+        return store.getArticleHistogram(from, to, Granularity.DAY).block().stream()
+            .map(PieChartVO.Article::getTotal)
+            .toList();
+    }
+
+    private Map<String, Integer> commentCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        store.getCommentLeaderboard(1, 100).block().getItems()
+            .forEach(comment -> counts.put(comment.getEmail(), comment.getCount()));
+        return counts;
+    }
+
+    private static Post post(String name, LocalDate publishDate) {
+        return AggregateFixtures.post(name, publishTime(publishDate), null);
+    }
+
+    private static Instant publishTime(LocalDate publishDate) {
+        return publishDate.atTime(12, 0).atZone(Constants.DEFAULT_ZONE_ID).toInstant();
+    }
+}
@@ -0,0 +1,55 @@
+package com.xhhao.dataStatistics.aggregate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class GranularityTest {
+
+    @Test
+    void weekBucketsStartOnMonday() {
+        // 2024-06-16 是周日，2024-06-17 是周一
+        assertThat(Granularity.WEEK.bucketStart(LocalDate.of(2024, 6, 16))).isEqualTo(LocalDate.of(2024, 6, 10));
+        assertThat(Granularity.WEEK.bucketStart(LocalDate.of(2024, 6, 17))).isEqualTo(LocalDate.of(2024, 6, 17));
+        assertThat(Granularity.WEEK.nextBucket(LocalDate.of(2024, 6, 10))).isEqualTo(LocalDate.of(2024, 6, 17));
+    }
+
+    @Test
+    void weekBucketCanStartInPreviousYear() {
+        // 2025-01-01 是周三，所在周从 2024-12-30 开始
+        assertThat(Granularity.WEEK.bucketStart(LocalDate.of(2025, 1, 1))).isEqualTo(LocalDate.of(2024, 12, 30));
+    }
+
+    @Test
+    void monthBucketsHandleMonthEnds() {
+        assertThat(Granularity.MONTH.bucketStart(LocalDate.of(2024, 2, 29))).isEqualTo(LocalDate.of(2024, 2, 1));
+        assertThat(Granularity.MONTH.nextBucket(LocalDate.of(2024, 1, 1))).isEqualTo(LocalDate.of(2024, 2, 1));
+        assertThat(Granularity.MONTH.nextBucket(LocalDate.of(2024, 12, 1))).isEqualTo(LocalDate.of(2025, 1, 1));
+    }
+
+    @Test
+    void yearBucketsStartOnJanuaryFirst() {
+        assertThat(Granularity.YEAR.bucketStart(LocalDate.of(2024, 12, 31))).isEqualTo(LocalDate.of(2024, 1, 1));
+        assertThat(Granularity.YEAR.nextBucket(LocalDate.of(2024, 1, 1))).isEqualTo(LocalDate.of(2025, 1, 1));
+    }
+
+    @Test
+    void labelsMatchGranularity() {
+        LocalDate date = LocalDate.of(2024, 6, 3);
+
+        assertThat(Granularity.DAY.label(date)).isEqualTo("2024-06-03");
+        assertThat(Granularity.WEEK.label(date)).isEqualTo("2024-06-03");
+        assertThat(Granularity.MONTH.label(Granularity.MONTH.bucketStart(date))).isEqualTo("2024-06");
+        assertThat(Granularity.YEAR.label(Granularity.YEAR.bucketStart(date))).isEqualTo("2024");
+    }
+
+    @Test
+    void ofIgnoresCaseAndRejectsUnknownValues() {
+        assertThat(Granularity.of("month")).isEqualTo(Granularity.MONTH);
+        assertThat(Granularity.of("Week")).isEqualTo(Granularity.WEEK);
+        assertThat(Granularity.of("quarter")).isNull();
+        assertThat(Granularity.of(null)).isNull();
+    }
+}
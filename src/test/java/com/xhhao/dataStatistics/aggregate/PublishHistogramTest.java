@@ -0,0 +1,84 @@
+package com.xhhao.dataStatistics.aggregate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class PublishHistogramTest {
+
+    private static final long DAY = LocalDate.of(2024, 6, 15).toEpochDay();
+
+    @Test
+    void emptyHistogramSumsToZero() {
+        PublishHistogram.View view = new PublishHistogram().freeze();
+
+        assertThat(view.count(DAY)).isZero();
+        assertThat(view.sum(Long.MIN_VALUE / 2, Long.MAX_VALUE / 2)).isZero();
+    }
+
+    @Test
+    void sumIncludesBothRangeEnds() {
+        PublishHistogram histogram = new PublishHistogram();
+        histogram.increment(DAY);
+        histogram.increment(DAY + 1);
+        histogram.increment(DAY + 1);
+        histogram.increment(DAY + 2);
+        PublishHistogram.View view = histogram.freeze();
+
+        assertThat(view.count(DAY + 1)).isEqualTo(2);
+        assertThat(view.sum(DAY, DAY + 2)).isEqualTo(4);
+        assertThat(view.sum(DAY + 1, DAY + 1)).isEqualTo(2);
+        assertThat(view.sum(DAY + 2, DAY)).isZero();
+    }
+
+    @Test
+    void rangesBeyondStoredDaysAreClamped() {
+        PublishHistogram histogram = new PublishHistogram();
+        histogram.increment(DAY);
+        PublishHistogram.View view = histogram.freeze();
+
+        assertThat(view.sum(DAY - 10_000, DAY + 10_000)).isEqualTo(1);
+        assertThat(view.sum(DAY - 10_000, DAY - 1)).isZero();
+        assertThat(view.sum(DAY + 1, DAY + 10_000)).isZero();
+    }
+
+    @Test
+    void growsInBothDirectionsWithoutLosingCounts() {
+        PublishHistogram histogram = new PublishHistogram();
+        histogram.increment(DAY);
+        // 远超初始容量，分别向前、向后扩容
+        histogram.increment(DAY - 5_000);
+        histogram.increment(DAY + 5_000);
+        PublishHistogram.View view = histogram.freeze();
+
+        assertThat(view.count(DAY)).isEqualTo(1);
+        assertThat(view.count(DAY - 5_000)).isEqualTo(1);
+        assertThat(view.count(DAY + 5_000)).isEqualTo(1);
+        assertThat(view.sum(DAY - 5_000, DAY + 5_000)).isEqualTo(3);
+    }
+
+    @Test
+    void decrementNeverGoesBelowZeroOrOutOfRange() {
+        PublishHistogram histogram = new PublishHistogram();
+        histogram.increment(DAY);
+        histogram.decrement(DAY);
+        histogram.decrement(DAY);
+        histogram.decrement(DAY + 100_000);
+        PublishHistogram.View view = histogram.freeze();
+
+        assertThat(view.count(DAY)).isZero();
+    }
+
+    @Test
+    void frozenViewIsNotAffectedByLaterUpdates() {
+        PublishHistogram histogram = new PublishHistogram();
+        histogram.increment(DAY);
+        PublishHistogram.View view = histogram.freeze();
+        histogram.increment(DAY);
+
+        assertThat(view.count(DAY)).isEqualTo(1);
+        assertThat(histogram.freeze().count(DAY)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,207 @@
+package com.xhhao.dataStatistics.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class RefreshingCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+    private static final Duration MIN_BACKOFF = Duration.ofSeconds(5);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(20);
+
+    private MutableClock clock;
+    private RefreshingCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        cache = new RefreshingCache<>("test", 16, MIN_BACKOFF, MAX_BACKOFF, clock);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() {
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Mono<String>> loader = () -> {
+            loads.incrementAndGet();
+            return upstream.asMono();
+        };
+
+        StepVerifier.create(Mono.zip(
+                cache.get("k", TTL, loader),
+                cache.get("k", TTL, loader),
+                cache.getFresh("k", TTL, loader)))
+            .expectSubscription()
+            .then(() -> upstream.tryEmitValue("v"))
+            .assertNext(values -> {
+                assertThat(values.getT1()).isEqualTo("v");
+                assertThat(values.getT2()).isEqualTo("v");
+                assertThat(values.getT3()).isEqualTo("v");
+            })
+            .verifyComplete();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void valueIsServedWithoutLoadingUntilTtlExpires() {
+        cache.put("k", "cached");
+        clock.advance(TTL.minusMillis(1));
+
+        StepVerifier.create(cache.get("k", TTL, () -> Mono.error(new AssertionError("不应加载"))))
+            .expectNext("cached")
+            .verifyComplete();
+    }
+
+    @Test
+    void staleValueIsServedWhileRefreshing() {
+        cache.put("k", "old");
+        clock.advance(TTL);
+        Sinks.One<String> upstream = Sinks.one();
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Mono<String>> loader = () -> {
+            loads.incrementAndGet();
+            return upstream.asMono();
+        };
+
+        StepVerifier.create(cache.get("k", TTL, loader))
+            .expectNext("old")
+            .verifyComplete();
+        // 刷新未完成时继续返回旧值，且不会发起第二次加载
+        StepVerifier.create(cache.get("k", TTL, loader))
+            .expectNext("old")
+            .verifyComplete();
+        assertThat(loads).hasValue(1);
+
+        upstream.tryEmitValue("new");
+        StepVerifier.create(cache.get("k", TTL, loader))
+            .expectNext("new")
+            .verifyComplete();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void getFreshWaitsForRefreshInsteadOfReturningStaleValue() {
+        cache.put("k", "old");
+        clock.advance(TTL);
+
+        StepVerifier.create(cache.getFresh("k", TTL, () -> Mono.just("new")))
+            .expectNext("new")
+            .verifyComplete();
+    }
+
+    @Test
+    void failedLoadIsNotRetriedDuringBackoff() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Mono<String>> loader = () -> loads.incrementAndGet() == 1
+            ? Mono.error(new IllegalStateException("upstream down"))
+            : Mono.just("recovered");
+
+        StepVerifier.create(cache.get("k", TTL, loader))
+            .expectErrorMessage("upstream down")
+            .verify();
+        clock.advance(MIN_BACKOFF.minusMillis(1));
+        StepVerifier.create(cache.get("k", TTL, loader))
+            .expectErrorMessage("upstream down")
+            .verify();
+        StepVerifier.create(cache.getFresh("k", TTL, loader))
+            .expectErrorMessage("upstream down")
+            .verify();
+        assertThat(loads).hasValue(1);
+
+        clock.advance(Duration.ofMillis(1));
+        StepVerifier.create(cache.get("k", TTL, loader))
+            .expectNext("recovered")
+            .verifyComplete();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void backoffGrowsExponentiallyUpToMaximum() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Mono<String>> loader = () -> {
+            loads.incrementAndGet();
+            return Mono.error(new IllegalStateException("upstream down"));
+        };
+
+        // 第 n 次失败后的退避：5s、10s、20s、20s
+        for (Duration backoff : new Duration[] {MIN_BACKOFF, MIN_BACKOFF.multipliedBy(2), MAX_BACKOFF,
+            MAX_BACKOFF}) {
+            int before = loads.get();
+            StepVerifier.create(cache.get("k", TTL, loader)).expectError().verify();
+            assertThat(loads).hasValue(before + 1);
+
+            clock.advance(backoff.minusMillis(1));
+            StepVerifier.create(cache.get("k", TTL, loader)).expectError().verify();
+            assertThat(loads).hasValue(before + 1);
+            clock.advance(Duration.ofMillis(1));
+        }
+    }
+
+    @Test
+    void failedBackgroundRefreshKeepsStaleValue() {
+        cache.put("k", "old");
+        clock.advance(TTL);
+
+        StepVerifier.create(cache.get("k", TTL, () -> Mono.error(new IllegalStateException("down"))))
+            .expectNext("old")
+            .verifyComplete();
+        assertThat(cache.getIfPresent("k")).isEqualTo("old");
+    }
+
+    @Test
+    void leastRecentlyReadEntryIsEvictedOverMaxSize() {
+        RefreshingCache<String, String> small =
+            new RefreshingCache<>("test", 2, MIN_BACKOFF, MAX_BACKOFF, clock);
+        small.get("a", TTL, () -> Mono.just("1")).block();
+        clock.advance(Duration.ofSeconds(1));
+        small.get("b", TTL, () -> Mono.just("2")).block();
+        clock.advance(Duration.ofSeconds(1));
+        // 重新读取 a，使 b 成为最久未读取的条目
+        small.get("a", TTL, () -> Mono.just("1")).block();
+        clock.advance(Duration.ofSeconds(1));
+        small.get("c", TTL, () -> Mono.just("3")).block();
+
+        assertThat(small.getIfPresent("a")).isEqualTo("1");
+        assertThat(small.getIfPresent("b")).isNull();
+        assertThat(small.getIfPresent("c")).isEqualTo("3");
+    }
+
+    @Test
+    void refreshActiveReloadsOnlyRecentlyReadExpiringEntries() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Mono<String>> loader = () -> Mono.fromSupplier(() -> "v" + loads.incrementAndGet());
+        cache.get("expiring", TTL, loader).block();
+        cache.get("fresh", TTL.multipliedBy(10), loader).block();
+        assertThat(loads).hasValue(2);
+        clock.advance(TTL.minusSeconds(10));
+
+        StepVerifier.create(cache.refreshActive(TTL, Duration.ofSeconds(30), 2))
+            .verifyComplete();
+
+        assertThat(loads).hasValue(3);
+        assertThat(cache.getIfPresent("expiring")).isEqualTo("v3");
+        assertThat(cache.getIfPresent("fresh")).isEqualTo("v2");
+    }
+
+    @Test
+    void refreshActiveSkipsEntriesNobodyReads() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("k", TTL, () -> Mono.fromSupplier(() -> "v" + loads.incrementAndGet())).block();
+        clock.advance(TTL.multipliedBy(2));
+
+        StepVerifier.create(cache.refreshActive(TTL, Duration.ZERO, 1))
+            .verifyComplete();
+
+        assertThat(loads).hasValue(1);
+    }
+}
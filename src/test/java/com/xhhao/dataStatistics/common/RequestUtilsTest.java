@@ -0,0 +1,37 @@
+package com.xhhao.dataStatistics.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class RequestUtilsTest {
+
+    @Test
+    void acceptsListedGzip() {
+        assertThat(RequestUtils.acceptsGzip("gzip")).isTrue();
+        assertThat(RequestUtils.acceptsGzip("deflate, GZIP;q=0.5, br")).isTrue();
+        assertThat(RequestUtils.acceptsGzip("x-gzip")).isTrue();
+    }
+
+    @Test
+    void honoursZeroQuality() {
+        assertThat(RequestUtils.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(RequestUtils.acceptsGzip("identity;q=1, gzip;q=0")).isFalse();
+        assertThat(RequestUtils.acceptsGzip("gzip; q=0.000")).isFalse();
+        assertThat(RequestUtils.acceptsGzip("*, gzip;q=0")).isFalse();
+    }
+
+    @Test
+    void fallsBackToWildcard() {
+        assertThat(RequestUtils.acceptsGzip("*")).isTrue();
+        assertThat(RequestUtils.acceptsGzip("br, *;q=0")).isFalse();
+    }
+
+    @Test
+    void rejectsMissingOrUnrelatedEncodings() {
+        assertThat(RequestUtils.acceptsGzip("")).isFalse();
+        assertThat(RequestUtils.acceptsGzip(null)).isFalse();
+        assertThat(RequestUtils.acceptsGzip("br, deflate")).isFalse();
+        assertThat(RequestUtils.acceptsGzip("gzipped")).isFalse();
+    }
+}
@@ -0,0 +1,152 @@
+package com.xhhao.dataStatistics.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class UpstreamGuardTest {
+
+    @Test
+    void retriesConnectionErrorsWithBackoff() {
+        UpstreamGuard guard = new UpstreamGuard("test", new RetryBudget(0.1, 10));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> request = Mono.defer(() -> attempts.incrementAndGet() < 3
+            ? Mono.error(connectionError())
+            : Mono.just("ok"));
+
+        StepVerifier.withVirtualTime(() -> guard.execute(request, "test"))
+            .expectSubscription()
+            .expectNoEvent(Duration.ofMillis(100))
+            .thenAwait(Duration.ofSeconds(5))
+            .expectNext("ok")
+            .verifyComplete();
+        assertThat(attempts).hasValue(3);
+        assertThat(guard.getState()).isEqualTo(UpstreamGuard.State.CLOSED);
+    }
+
+    @Test
+    void givesUpAfterMaxRetries() {
+        UpstreamGuard guard = new UpstreamGuard("test", new RetryBudget(0.1, 10));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> request = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(connectionError());
+        });
+
+        StepVerifier.withVirtualTime(() -> guard.execute(request, "test"))
+            .thenAwait(Duration.ofSeconds(10))
+            .expectError(WebClientRequestException.class)
+            .verify();
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void doesNotRetryWhenBudgetIsExhausted() {
+        UpstreamGuard guard = new UpstreamGuard("test", new RetryBudget(0, 0));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> request = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(connectionError());
+        });
+
+        StepVerifier.create(guard.execute(request, "test"))
+            .expectError(WebClientRequestException.class)
+            .verify();
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void clientErrorsAreNotRetriedAndDoNotOpenCircuit() {
+        UpstreamGuard guard = new UpstreamGuard("test", new RetryBudget(0.1, 10));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> request = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(responseError(404));
+        });
+
+        for (int i = 0; i < 10; i++) {
+            StepVerifier.create(guard.execute(request, "test"))
+                .expectError(WebClientResponseException.class)
+                .verify();
+        }
+        assertThat(attempts).hasValue(10);
+        assertThat(guard.getState()).isEqualTo(UpstreamGuard.State.CLOSED);
+    }
+
+    @Test
+    void consecutiveServerErrorsOpenCircuitAndRejectWithoutCallingUpstream() {
+        UpstreamGuard guard = new UpstreamGuard("test", new RetryBudget(0.1, 10));
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> request = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(responseError(503));
+        });
+
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(guard.execute(request, "test"))
+                .expectError(WebClientResponseException.class)
+                .verify();
+        }
+        assertThat(guard.getState()).isEqualTo(UpstreamGuard.State.OPEN);
+
+        StepVerifier.create(guard.execute(request, "test"))
+            .expectError(UpstreamGuard.CircuitOpenException.class)
+            .verify();
+        assertThat(attempts).hasValue(5);
+    }
+
+    @Test
+    void clientErrorResetsConsecutiveFailures() {
+        UpstreamGuard guard = new UpstreamGuard("test", new RetryBudget(0.1, 10));
+
+        for (int i = 0; i < 4; i++) {
+            failOnce(guard, responseError(500));
+        }
+        failOnce(guard, responseError(400));
+        for (int i = 0; i < 4; i++) {
+            failOnce(guard, responseError(500));
+        }
+
+        assertThat(guard.getState()).isEqualTo(UpstreamGuard.State.CLOSED);
+    }
+
+    @Test
+    void slowRequestTimesOutWithDefaultTimeout() {
+        UpstreamGuard guard = new UpstreamGuard("test", new RetryBudget(0.1, 10));
+
+        StepVerifier.withVirtualTime(() -> guard.execute(Mono.never(), "test"))
+            .expectSubscription()
+            .expectNoEvent(guard.getTimeout().minusMillis(1))
+            .thenAwait(Duration.ofMillis(1))
+            .expectError(TimeoutException.class)
+            .verify();
+    }
+
+    private static void failOnce(UpstreamGuard guard, Throwable error) {
+        StepVerifier.create(guard.execute(Mono.error(error), "test"))
+            .expectError()
+            .verify();
+    }
+
+    private static WebClientRequestException connectionError() {
+        return new WebClientRequestException(new IllegalStateException("connection refused"), HttpMethod.GET,
+            URI.create("http://upstream.test"), HttpHeaders.EMPTY);
+    }
+
+    private static WebClientResponseException responseError(int status) {
+        return WebClientResponseException.create(status, "status " + status, HttpHeaders.EMPTY, new byte[0],
+            null);
+    }
+}
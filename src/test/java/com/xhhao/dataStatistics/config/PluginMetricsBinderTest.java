@@ -0,0 +1,41 @@
+package com.xhhao.dataStatistics.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PluginMetricsBinderTest {
+
+    @Test
+    void reloadedPluginReportsValuesOfNewInstance() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.counter("halo.other").increment();
+
+        PluginMetricsBinder first = start(registry, new AtomicInteger(1));
+        first.destroy();
+        assertThat(registry.find("data.statistics.test.size").gauge()).isNull();
+        assertThat(registry.find("halo.other").counter()).isNotNull();
+
+        start(registry, new AtomicInteger(2));
+        assertThat(registry.get("data.statistics.test.size").gauge().value()).isEqualTo(2);
+    }
+
+    private static PluginMetricsBinder start(MeterRegistry registry, AtomicInteger size) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("registry", registry);
+        beanFactory.addBean("binder", (MeterBinder) r -> Gauge.builder("data.statistics.test.size", size,
+            AtomicInteger::get).register(r));
+        PluginMetricsBinder binder =
+            new PluginMetricsBinder(beanFactory, beanFactory.getBeanProvider(MeterRegistry.class));
+        binder.afterSingletonsInstantiated();
+        return binder;
+    }
+}
@@ -0,0 +1,19 @@
+// 压缩主题端静态脚本：src/main/resources/static/js/*.js -> static/min/*.min.js
+import { readdir, readFile, writeFile } from 'node:fs/promises'
+import { minify } from 'terser'
+
+const srcDir = new URL('../../src/main/resources/static/js/', import.meta.url)
+const minDir = new URL('../../src/main/resources/static/min/', import.meta.url)
+
+const files = (await readdir(srcDir)).filter((name) => name.endsWith('.js')).sort()
+for (const name of files) {
+  const code = await readFile(new URL(name, srcDir), 'utf8')
+  const result = await minify(code, {
+    compress: { passes: 2 },
+    mangle: true,
+    format: { comments: false },
+  })
+  const minName = name.replace(/\.js$/, '.min.js')
+  await writeFile(new URL(minName, minDir), result.code + '\n')
+  console.log(`已压缩: ${name} -> ${minName} (${code.length} -> ${result.code.length})`)
+}